@@ -0,0 +1,120 @@
+package chess.bench;
+
+import chess.ChessboardCover;
+import chess.Piece;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ChessboardCover 热点方法基准：方形与细长棋盘，两种存储引擎
+ * 默认只测马，其他棋子用 -p piece=king（或 camel、zebra、"1,4"）
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CoverBenchmark {
+
+    @Param({"8x8", "50x50", "200x200", "500x500", "4x500", "500x4", "2x2000"})
+    public String shape;
+
+    @Param({"COUNTING", "BITBOARD"})
+    public String engine;
+
+    @Param({"knight"})
+    public String piece;
+
+    private ChessboardCover cover;
+    private int rows;
+    private int cols;
+    private int probe;
+
+    @Setup(Level.Trial)
+    public void solve() {
+        String[] parts = shape.split("x");
+        rows = Integer.parseInt(parts[0]);
+        cols = Integer.parseInt(parts[1]);
+        cover = new ChessboardCover(rows, cols, ChessboardCover.Engine.valueOf(engine),
+                ChessboardCover.Strategy.MINIMAL, null, Piece.parse(piece));
+    }
+
+    /**
+     * 轮流探测各格的 isAttacked，按单次调用计时
+     */
+    @Benchmark
+    public void isAttacked(Blackhole bh) {
+        int cells = rows * cols;
+        int idx = probe;
+        probe = idx + 1 == cells ? 0 : idx + 1;
+        bh.consume(cover.isAttacked(idx / cols, idx % cols));
+    }
+
+    @Benchmark
+    public boolean isFullCover() {
+        return cover.isFullCover();
+    }
+
+    @Benchmark
+    public int countHorses() {
+        return cover.countHorses();
+    }
+
+    /**
+     * 需要每次从满棋盘开始的基准
+     */
+    @State(Scope.Thread)
+    public static class FullBoard {
+        ChessboardCover cover;
+        int rows;
+        int cols;
+
+        @Setup(Level.Invocation)
+        public void fill(CoverBenchmark bench) {
+            if (cover == null) {
+                cover = new ChessboardCover(bench.rows, bench.cols, ChessboardCover.Engine.valueOf(bench.engine),
+                        ChessboardCover.Strategy.MINIMAL, null, Piece.parse(bench.piece));
+                rows = bench.rows;
+                cols = bench.cols;
+            }
+            cover.clearBoard();
+            for (int i = 0; i < rows; i++) {
+                for (int j = 0; j < cols; j++) {
+                    cover.placeHorse(i, j);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public int minimizeCover(FullBoard full) {
+        full.cover.minimizeCover();
+        return full.cover.countHorses();
+    }
+
+    @Benchmark
+    public int minimizeCoverParallel(FullBoard full) {
+        full.cover.minimizeCoverParallel(1L);
+        return full.cover.countHorses();
+    }
+
+    @Benchmark
+    public boolean backtrackRemove(FullBoard full) {
+        ChessboardCover c = full.cover;
+        return c.backtrackRemove(0, full.rows, full.cols, c.getBoard());
+    }
+}
@@ -0,0 +1,61 @@
+package chess.bench;
+
+import chess.ChessboardCover;
+import chess.SolutionExporter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 大棋盘报告生成基准
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class ExporterBenchmark {
+
+    @Param({"100x100", "300x300", "500x500", "8x2000"})
+    public String shape;
+
+    private SolutionExporter exporter;
+
+    @Setup(Level.Trial)
+    public void solve() {
+        String[] parts = shape.split("x");
+        int rows = Integer.parseInt(parts[0]);
+        int cols = Integer.parseInt(parts[1]);
+        ChessboardCover cover = new ChessboardCover(rows, cols);
+        exporter = new SolutionExporter(rows, cols, cover.getBoard());
+    }
+
+    @Benchmark
+    public int generateReport() {
+        return exporter.generateReport().length();
+    }
+
+    @Benchmark
+    public void writeReport() throws IOException {
+        exporter.writeReport(Writer.nullWriter());
+    }
+
+    @Benchmark
+    public void writeMatrix() throws IOException {
+        exporter.writeMatrix(Writer.nullWriter());
+    }
+}
@@ -1,8 +0,0 @@
-import javax.swing.SwingUtilities;
-
-public class Main {
-    public static void main(String[] args) {
-        // 在Swing事件线程中启动界面，避免卡顿
-        SwingUtilities.invokeLater(() -> new ChessboardGUI());
-    }
-}
\ No newline at end of file
@@ -0,0 +1,267 @@
+package chess;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 无界面批量计算：按行列范围逐个求覆盖，多线程计算、结果边算边写
+ */
+public class BatchRunner {
+    private final int rowsFrom;
+    private final int rowsTo;
+    private final int colsFrom;
+    private final int colsTo;
+    private final int threads;
+    private final String format;  // csv 或 jsonl
+    private final ChessboardCover.Engine engine;
+    private final ChessboardCover.Strategy strategy;
+    private SolutionCache cache;
+    private Piece piece = Piece.KNIGHT;
+    private Path archiveDir;  // 不为 null 时每个棋盘另存一个二进制方案文件
+    private SolverMetrics metrics;  // 不为 null 时在标准错误上汇报进度和统计
+    private static final long PROGRESS_INTERVAL_NANOS = 1_000_000_000L;
+
+    public BatchRunner(int rowsFrom, int rowsTo, int colsFrom, int colsTo, int threads, String format,
+                       ChessboardCover.Engine engine, ChessboardCover.Strategy strategy) {
+        this.rowsFrom = rowsFrom;
+        this.rowsTo = rowsTo;
+        this.colsFrom = colsFrom;
+        this.colsTo = colsTo;
+        this.threads = threads;
+        this.format = format;
+        this.engine = engine;
+        this.strategy = strategy;
+    }
+
+    public void setSolutionCache(SolutionCache cache) {
+        this.cache = cache;
+    }
+
+    public void setPiece(Piece piece) {
+        this.piece = piece;
+    }
+
+    public void setArchiveDir(Path archiveDir) {
+        this.archiveDir = archiveDir;
+    }
+
+    /**
+     * 统计对象需同时设为 ChessboardCover 的默认统计才会有求解计数
+     */
+    public void setMetrics(SolverMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * 单个棋盘的计算结果
+     */
+    private static class Result {
+        final int rows;
+        final int cols;
+        final int knights;
+        final long millis;
+
+        Result(int rows, int cols, int knights, long millis) {
+            this.rows = rows;
+            this.cols = cols;
+            this.knights = knights;
+            this.millis = millis;
+        }
+    }
+
+    /**
+     * 运行并把每个棋盘的结果写成一行；同时在途的任务数固定，内存不随棋盘数增长
+     */
+    public void run(Writer out) throws IOException, InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "batch-worker");
+            t.setDaemon(true);
+            return t;
+        });
+        CompletionService<Result> done = new ExecutorCompletionService<>(pool);
+        int maxInFlight = threads * 2;
+        int inFlight = 0;
+        long total = (long) (rowsTo - rowsFrom + 1) * (colsTo - colsFrom + 1);
+        long completed = 0;
+        long lastReport = System.nanoTime();
+        try {
+            if ("csv".equals(format)) {
+                out.write("rows,cols,strategy,knights,millis\n");
+            }
+            for (int r = rowsFrom; r <= rowsTo; r++) {
+                for (int c = colsFrom; c <= colsTo; c++) {
+                    if (inFlight == maxInFlight) {
+                        write(out, take(done));
+                        inFlight--;
+                        lastReport = report(++completed, total, lastReport);
+                    }
+                    final int rows = r, cols = c;
+                    done.submit(() -> solve(rows, cols));
+                    inFlight++;
+                }
+            }
+            while (inFlight > 0) {
+                write(out, take(done));
+                inFlight--;
+                lastReport = report(++completed, total, lastReport);
+            }
+        } finally {
+            pool.shutdownNow();
+            out.flush();
+        }
+    }
+
+    private Result solve(int rows, int cols) throws IOException {
+        long start = System.nanoTime();
+        try (ChessboardCover cover = new ChessboardCover(rows, cols, engine, strategy, cache, piece)) {
+            int knights = cover.countHorses();
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            if (archiveDir != null) {
+                String suffix = piece.isKnight() ? "" : "_" + piece.getSpec().replace(',', '-').replace('+', '_');
+                cover.save(archiveDir.resolve(rows + "x" + cols + "_" + strategy.name() + suffix + ".ksf"));
+            }
+            return new Result(rows, cols, knights, millis);
+        }
+    }
+
+    /**
+     * 至多每秒在标准错误上打印一次进度
+     */
+    private long report(long completed, long total, long lastReport) {
+        long now = System.nanoTime();
+        if (metrics == null || (now - lastReport < PROGRESS_INTERVAL_NANOS && completed < total)) {
+            return lastReport;
+        }
+        System.err.printf("进度 %d/%d (%.1f%%) %s%n", completed, total, completed * 100.0 / total, metrics);
+        return now;
+    }
+
+    private static Result take(CompletionService<Result> done) throws InterruptedException, IOException {
+        try {
+            return done.take().get();
+        } catch (ExecutionException e) {
+            throw new IOException("计算失败：" + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private void write(Writer out, Result r) throws IOException {
+        if ("csv".equals(format)) {
+            out.write(r.rows + "," + r.cols + "," + strategy.name() + "," + r.knights + "," + r.millis + "\n");
+        } else {
+            out.write("{\"rows\":" + r.rows + ",\"cols\":" + r.cols + ",\"strategy\":\"" + strategy.name()
+                    + "\",\"knights\":" + r.knights + ",\"millis\":" + r.millis + "}\n");
+        }
+        out.flush();
+    }
+
+    /**
+     * 命令行入口：--batch --rows 8-100 --cols 8-100 [--threads N] [--out 路径|-] [--cache 目录]
+     * [--archive 目录] [--metrics] [--format csv|jsonl] [--engine COUNTING|BITBOARD] [--strategy MINIMAL|EXACT|PARALLEL|TILING]
+     * [--piece knight|king|camel|zebra|a,b]
+     */
+    public static void main(String[] args) {
+        int[] rows = null;
+        int[] cols = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        String outPath = "-";
+        String cacheDir = null;
+        String archiveDir = null;
+        boolean withMetrics = false;
+        String format = "csv";
+        ChessboardCover.Engine engine = ChessboardCover.Engine.COUNTING;
+        ChessboardCover.Strategy strategy = ChessboardCover.Strategy.MINIMAL;
+        Piece piece = Piece.KNIGHT;
+        try {
+            for (int k = 0; k < args.length; k++) {
+                switch (args[k]) {
+                    case "--batch": break;
+                    case "--rows": rows = parseRange(args[++k]); break;
+                    case "--cols": cols = parseRange(args[++k]); break;
+                    case "--threads": threads = Integer.parseInt(args[++k]); break;
+                    case "--out": outPath = args[++k]; break;
+                    case "--cache": cacheDir = args[++k]; break;
+                    case "--archive": archiveDir = args[++k]; break;
+                    case "--metrics": withMetrics = true; break;
+                    case "--format": format = args[++k]; break;
+                    case "--engine": engine = ChessboardCover.Engine.valueOf(args[++k]); break;
+                    case "--strategy": strategy = ChessboardCover.Strategy.valueOf(args[++k]); break;
+                    case "--piece": piece = Piece.parse(args[++k]); break;
+                    default: throw new IllegalArgumentException("未知参数：" + args[k]);
+                }
+            }
+            if (engine == ChessboardCover.Engine.MAPPED) {
+                // 内存映射引擎需要一个棋盘文件，批量模式不提供
+                throw new IllegalArgumentException("--engine 只支持 COUNTING 或 BITBOARD");
+            }
+            if (rows == null) throw new IllegalArgumentException("缺少 --rows");
+            if (cols == null) cols = rows;
+            if (threads < 1) throw new IllegalArgumentException("--threads 至少为 1");
+            if (!"csv".equals(format) && !"jsonl".equals(format)) {
+                throw new IllegalArgumentException("--format 只支持 csv 或 jsonl");
+            }
+            if (strategy == ChessboardCover.Strategy.EXACT
+                    && (long) rows[1] * cols[1] > ChessboardCover.EXACT_MAX_CELLS) {
+                throw new IllegalArgumentException("精确求解仅支持 " + ChessboardCover.EXACT_MAX_CELLS + " 格以内的棋盘");
+            }
+            if (strategy == ChessboardCover.Strategy.TILING && !piece.isKnight()) {
+                throw new IllegalArgumentException("周期铺砌构造仅支持马");
+            }
+        } catch (RuntimeException e) {
+            System.err.println("参数错误：" + e.getMessage());
+            System.err.println("用法：--batch --rows 8-100 [--cols 8-100] [--threads N] [--out 路径|-] [--cache 目录] "
+                    + "[--archive 目录] [--metrics] [--format csv|jsonl] [--engine COUNTING|BITBOARD] [--strategy MINIMAL|EXACT|PARALLEL|TILING] "
+                    + "[--piece knight|king|camel|zebra|a,b]");
+            System.exit(2);
+            return;
+        }
+
+        BatchRunner runner = new BatchRunner(rows[0], rows[1], cols[0], cols[1], threads, format, engine, strategy);
+        runner.setPiece(piece);
+        if (cacheDir != null) {
+            runner.setSolutionCache(new SolutionCache(Paths.get(cacheDir)));
+        }
+        if (archiveDir != null) {
+            runner.setArchiveDir(Paths.get(archiveDir));
+        }
+        if (withMetrics) {
+            SolverMetrics metrics = SolverMetrics.shared();
+            ChessboardCover.setDefaultMetrics(metrics);
+            runner.setMetrics(metrics);
+        }
+        try (Writer out = "-".equals(outPath)
+                ? new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8))
+                : Files.newBufferedWriter(Paths.get(outPath), StandardCharsets.UTF_8)) {
+            runner.run(out);
+        } catch (IOException e) {
+            System.err.println("写出失败：" + e.getMessage());
+            System.exit(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.exit(1);
+        }
+    }
+
+    /**
+     * 解析 "8-100" 或 "8"
+     */
+    private static int[] parseRange(String text) {
+        int dash = text.indexOf('-');
+        int from = Integer.parseInt((dash < 0 ? text : text.substring(0, dash)).trim());
+        int to = dash < 0 ? from : Integer.parseInt(text.substring(dash + 1).trim());
+        if (from < 1 || to < from) {
+            throw new IllegalArgumentException("范围无效：" + text);
+        }
+        return new int[]{from, to};
+    }
+}
@@ -0,0 +1,48 @@
+package chess;
+
+import java.io.IOException;
+
+/**
+ * 位棋盘底层的 long 存储：堆内数组或内存映射文件
+ */
+interface BitStore {
+    long getLong(long index);
+
+    void setLong(long index, long value);
+
+    /**
+     * 把改动写回持久介质（堆内存储无操作）
+     */
+    default void flush() {
+    }
+
+    /**
+     * 释放底层文件（堆内存储无操作）
+     */
+    default void close() throws IOException {
+    }
+
+    /**
+     * 堆内 long[] 存储
+     */
+    final class Heap implements BitStore {
+        private final long[] words;
+
+        Heap(long size) {
+            if (size > Integer.MAX_VALUE - 8) {
+                throw new IllegalArgumentException("棋盘过大，堆内存储放不下，请使用内存映射存储");
+            }
+            this.words = new long[(int) size];
+        }
+
+        @Override
+        public long getLong(long index) {
+            return words[(int) index];
+        }
+
+        @Override
+        public void setLong(long index, long value) {
+            words[(int) index] = value;
+        }
+    }
+}
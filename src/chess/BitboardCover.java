@@ -0,0 +1,332 @@
+package chess;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * 位棋盘：每行按 64 格一组打包成 long，用移位一次算出整字的攻击集
+ * 底层可以是堆内数组，也可以是内存映射文件（见 MappedBitStore）
+ */
+public class BitboardCover {
+    private final int rows;
+    private final int cols;
+    private final int words;      // 每行占用的 long 个数
+    private final long lastMask;  // 行末 long 中的有效位
+    private final BitStore bits;  // 行优先，第 i 行从 i * words 开始
+    private final Piece piece;
+    private final MoveTable moves;  // 下标为位序号 i * words * 64 + j
+
+    public BitboardCover(int rows, int cols) {
+        this(rows, cols, Piece.KNIGHT);
+    }
+
+    public BitboardCover(int rows, int cols, Piece piece) {
+        this(rows, cols, new BitStore.Heap((long) rows * ((cols + 63) >>> 6)), piece);
+    }
+
+    // 使用内存映射存储
+    public BitboardCover(MappedBitStore store) {
+        this(store, Piece.KNIGHT);
+    }
+
+    public BitboardCover(MappedBitStore store, Piece piece) {
+        this(store.getRows(), store.getCols(), store, piece);
+    }
+
+    private BitboardCover(int rows, int cols, BitStore bits, Piece piece) {
+        this.rows = rows;
+        this.cols = cols;
+        this.words = (cols + 63) >>> 6;
+        this.lastMask = (cols & 63) == 0 ? -1L : (1L << (cols & 63)) - 1;
+        this.bits = bits;
+        this.piece = piece;
+        this.moves = MoveTable.compile(rows, cols, words << 6, piece);
+    }
+
+    public Piece getPiece() { return piece; }
+    public int getRows() { return rows; }
+    public int getCols() { return cols; }
+    public int getWordsPerRow() { return words; }
+
+    /**
+     * 第 i 行第 w 个 long
+     */
+    public long getWord(int i, int w) {
+        return bits.getLong((long) i * words + w);
+    }
+
+    public void setWord(int i, int w, long value) {
+        bits.setLong((long) i * words + w, w == words - 1 ? value & lastMask : value);
+    }
+
+    public boolean get(int i, int j) {
+        return (bits.getLong((long) i * words + (j >>> 6)) & (1L << j)) != 0;
+    }
+
+    public void set(int i, int j) {
+        long idx = (long) i * words + (j >>> 6);
+        bits.setLong(idx, bits.getLong(idx) | 1L << j);
+    }
+
+    public void clear(int i, int j) {
+        long idx = (long) i * words + (j >>> 6);
+        bits.setLong(idx, bits.getLong(idx) & ~(1L << j));
+    }
+
+    /**
+     * 所有格子放马
+     */
+    public void fill() {
+        for (int i = 0; i < rows; i++) {
+            for (int w = 0; w < words; w++) {
+                setWord(i, w, -1L);
+            }
+        }
+    }
+
+    /**
+     * 清空棋盘
+     */
+    public void clearAll() {
+        long total = (long) rows * words;
+        for (long k = 0; k < total; k++) {
+            bits.setLong(k, 0L);
+        }
+    }
+
+    /**
+     * 统计马的数量
+     */
+    public int countHorses() {
+        long total = (long) rows * words;
+        long count = 0;
+        for (long k = 0; k < total; k++) {
+            count += Long.bitCount(bits.getLong(k));
+        }
+        return (int) Math.min(Integer.MAX_VALUE, count);
+    }
+
+    /**
+     * 计算第 i 行被攻击的格子，结果写入 out（长度至少为 words）
+     */
+    public void attackRow(int i, long[] out) {
+        Arrays.fill(out, 0, words, 0L);
+        for (int k = 0; k < piece.getMoveCount(); k++) {
+            // 第 x 行的马攻击第 i 行
+            int x = i - piece.dx(k);
+            if (x >= 0 && x < rows) {
+                shiftOr((long) x * words, piece.dy(k), out);
+            }
+        }
+        out[words - 1] &= lastMask;
+    }
+
+    /**
+     * out 的第 c 位 |= 源行第 c - shift 位
+     */
+    private void shiftOr(long base, int shift, long[] out) {
+        if (shift == 0) {
+            for (int w = 0; w < words; w++) {
+                out[w] |= bits.getLong(base + w);
+            }
+        } else if (shift > 0) {
+            long carry = 0;
+            for (int w = 0; w < words; w++) {
+                long src = bits.getLong(base + w);
+                out[w] |= (src << shift) | carry;
+                carry = src >>> (64 - shift);
+            }
+        } else {
+            int s = -shift;
+            long src = bits.getLong(base);
+            for (int w = 0; w < words; w++) {
+                long next = w + 1 < words ? bits.getLong(base + w + 1) : 0L;
+                out[w] |= (src >>> s) | (next << (64 - s));
+                src = next;
+            }
+        }
+    }
+
+    /**
+     * 检查是否为满覆盖：每行只需几次 OR / AND-NOT
+     */
+    public boolean isFullCover() {
+        long[] attacked = new long[words];
+        for (int i = 0; i < rows; i++) {
+            attackRow(i, attacked);
+            for (int w = 0; w < words; w++) {
+                long mask = w == words - 1 ? lastMask : -1L;
+                if ((~(getWord(i, w) | attacked[w]) & mask) != 0) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 检查位置是否被马攻击
+     */
+    public boolean isAttacked(int i, int j) {
+        return attackedExcept(i, j, -1L);
+    }
+
+    /**
+     * 位序号 b 处是否有马
+     */
+    private boolean bit(long b) {
+        return (bits.getLong(b >>> 6) & (1L << b)) != 0;
+    }
+
+    /**
+     * (i, j) 是否被位序号 except 以外的马攻击（走法对称，攻击者就是落点上的马）
+     */
+    private boolean attackedExcept(int i, int j, long except) {
+        MoveTable t = moves;
+        long b = (long) i * t.stride + j;
+        int p = t.rowClass[i] + t.colClass[j];
+        for (int k = t.start[p], end = t.start[p + 1]; k < end; k++) {
+            long x = b + t.delta[k];
+            if (x != except && bit(x)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 判断马是否冗余：只检查本格及其落点
+     */
+    public boolean isRedundant(int i, int j) {
+        if (!get(i, j) || !isAttacked(i, j)) {
+            return false;
+        }
+        MoveTable t = moves;
+        long b = (long) i * t.stride + j;
+        int p = t.rowClass[i] + t.colClass[j];
+        for (int k = t.start[p], end = t.start[p + 1]; k < end; k++) {
+            if (!bit(b + t.delta[k]) && !attackedExcept(i + t.dRow[k], j + t.dCol[k], b)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 极小化覆盖：按行优先顺序移除冗余马，只遍历有马的位
+     */
+    public void minimize() {
+        while (minimizeRows(0, rows)) {
+            // 直到一整遍都没有冗余马
+        }
+    }
+
+    /**
+     * 单遍扫描 [fromRow, toRow) 行并移除冗余马，返回是否有移除
+     * 各行占用独立的 long，不同行带可并行调用
+     */
+    public boolean minimizeRows(int fromRow, int toRow) {
+        boolean changed = false;
+        for (int i = fromRow; i < toRow; i++) {
+            for (int w = 0; w < words; w++) {
+                long word = getWord(i, w);
+                while (word != 0) {
+                    int j = (w << 6) + Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
+                    if (isRedundant(i, j)) {
+                        clear(i, j);
+                        changed = true;
+                    }
+                }
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * 复制一份
+     */
+    public BitboardCover copy() {
+        BitboardCover bb = new BitboardCover(rows, cols, piece);
+        bb.copyFrom(this);
+        return bb;
+    }
+
+    /**
+     * 从同尺寸的位棋盘复制内容
+     */
+    public void copyFrom(BitboardCover other) {
+        if (other.rows != rows || other.cols != cols) {
+            throw new IllegalArgumentException("棋盘大小不一致");
+        }
+        long total = (long) rows * words;
+        for (long k = 0; k < total; k++) {
+            bits.setLong(k, other.bits.getLong(k));
+        }
+    }
+
+    /**
+     * 把改动写回底层存储（内存映射文件时落盘）
+     */
+    public void flush() {
+        bits.flush();
+    }
+
+    /**
+     * 落盘并释放底层存储（内存映射文件时关闭文件通道），之后不能再使用
+     */
+    public void close() throws IOException {
+        bits.close();
+    }
+
+    /**
+     * 转置（行列互换），跳子的走法关于对角线对称，覆盖仍然有效
+     */
+    public BitboardCover transpose() {
+        BitboardCover bb = new BitboardCover(cols, rows, piece);
+        for (int i = 0; i < rows; i++) {
+            for (int w = 0; w < words; w++) {
+                long word = getWord(i, w);
+                while (word != 0) {
+                    bb.set((w << 6) + Long.numberOfTrailingZeros(word), i);
+                    word &= word - 1;
+                }
+            }
+        }
+        return bb;
+    }
+
+    /**
+     * 展开为 int[][]（1=马, 0=空）
+     */
+    public int[][] toIntBoard() {
+        int[][] board = new int[rows][cols];
+        for (int i = 0; i < rows; i++) {
+            for (int w = 0; w < words; w++) {
+                long word = getWord(i, w);
+                while (word != 0) {
+                    board[i][(w << 6) + Long.numberOfTrailingZeros(word)] = 1;
+                    word &= word - 1;
+                }
+            }
+        }
+        return board;
+    }
+
+    /**
+     * 由 int[][] 构造位棋盘
+     */
+    public static BitboardCover fromIntBoard(int rows, int cols, int[][] board) {
+        return fromIntBoard(rows, cols, board, Piece.KNIGHT);
+    }
+
+    public static BitboardCover fromIntBoard(int rows, int cols, int[][] board, Piece piece) {
+        BitboardCover bb = new BitboardCover(rows, cols, piece);
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                if (board[i][j] == 1) bb.set(i, j);
+            }
+        }
+        return bb;
+    }
+}
@@ -0,0 +1,263 @@
+package chess;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 不规则棋盘的形状：rows × cols 外框内哪些格子在棋盘上（有洞的棋盘、L 形、稀疏的大棋盘）
+ *
+ * 只存在盘格子：按行优先编号 0..n-1，rowStart[i] 为第 i 行第一个在盘格子的编号，col[v] 为其列号（行内升序），
+ * 占用 O(行数 + 在盘格子数)。跳子越过洞照常落子，落点不在盘上的走法不存在。不可变
+ */
+public final class BoardMask {
+    private final int rows;
+    private final int cols;
+    private final int[] rowStart;  // 长度 rows + 1
+    private final int[] col;       // 长度 = 在盘格子数
+
+    private BoardMask(int rows, int cols, int[] rowStart, int[] col) {
+        if (rows < 1 || cols < 1) {
+            throw new IllegalArgumentException("行数和列数都不能小于 1");
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.rowStart = rowStart;
+        this.col = col;
+    }
+
+    /**
+     * 邻接表（CSR 形式）：格子 v 的落点编号为 target[start[v] .. start[v+1])，顺序同 Piece 的走法顺序
+     */
+    static final class Adjacency {
+        final int[] start;
+        final int[] target;
+        final int maxDegree;
+
+        Adjacency(int[] start, int[] target, int maxDegree) {
+            this.start = start;
+            this.target = target;
+            this.maxDegree = maxDegree;
+        }
+    }
+
+    /**
+     * 完整矩形
+     */
+    public static BoardMask full(int rows, int cols) {
+        int[] rowStart = new int[rows + 1];
+        int[] col = new int[Math.multiplyExact(rows, cols)];
+        for (int i = 0; i < rows; i++) {
+            rowStart[i + 1] = rowStart[i] + cols;
+            for (int j = 0; j < cols; j++) {
+                col[i * cols + j] = j;
+            }
+        }
+        return new BoardMask(rows, cols, rowStart, col);
+    }
+
+    /**
+     * 置位的格子在盘上
+     */
+    public static BoardMask fromBitboard(BitboardCover active) {
+        int rows = active.getRows(), words = active.getWordsPerRow();
+        int[] rowStart = new int[rows + 1];
+        for (int i = 0; i < rows; i++) {
+            int count = 0;
+            for (int w = 0; w < words; w++) {
+                count += Long.bitCount(active.getWord(i, w));
+            }
+            rowStart[i + 1] = rowStart[i] + count;
+        }
+        int[] col = new int[rowStart[rows]];
+        int v = 0;
+        for (int i = 0; i < rows; i++) {
+            for (int w = 0; w < words; w++) {
+                long word = active.getWord(i, w);
+                while (word != 0) {
+                    col[v++] = (w << 6) + Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
+                }
+            }
+        }
+        return new BoardMask(rows, active.getCols(), rowStart, col);
+    }
+
+    /**
+     * 由在盘格子的坐标 {行, 列} 构造（顺序任意，重复忽略），适合外框很大而格子稀疏的棋盘
+     */
+    public static BoardMask fromCells(int rows, int cols, int[][] cells) {
+        long[] keys = new long[cells.length];
+        for (int k = 0; k < cells.length; k++) {
+            int i = cells[k][0], j = cells[k][1];
+            if (i < 0 || i >= rows || j < 0 || j >= cols) {
+                throw new IllegalArgumentException("格子 (" + i + "," + j + ") 超出 " + rows + "×" + cols + " 的外框");
+            }
+            keys[k] = (long) i * cols + j;
+        }
+        Arrays.sort(keys);
+        int[] rowStart = new int[rows + 1];
+        int[] col = new int[keys.length];
+        int n = 0;
+        for (int k = 0; k < keys.length; k++) {
+            if (k > 0 && keys[k] == keys[k - 1]) continue;
+            rowStart[(int) (keys[k] / cols) + 1]++;
+            col[n++] = (int) (keys[k] % cols);
+        }
+        for (int i = 0; i < rows; i++) {
+            rowStart[i + 1] += rowStart[i];
+        }
+        return new BoardMask(rows, cols, rowStart, Arrays.copyOf(col, n));
+    }
+
+    /**
+     * 读入形状：每行一个棋盘行，'#' 为不在盘上，'0'、'1'、'.' 为在盘格子，空白与空行忽略；
+     * 较短的行右侧补洞。SolutionExporter 导出的不规则棋盘矩阵可直接读回
+     */
+    public static BoardMask parse(Reader in) throws IOException {
+        BufferedReader reader = in instanceof BufferedReader ? (BufferedReader) in : new BufferedReader(in);
+        List<int[]> lines = new ArrayList<>();
+        int cols = 0;
+        String line;
+        int lineNo = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNo++;
+            int[] active = new int[line.length()];
+            int n = 0, width = 0;
+            for (int k = 0; k < line.length(); k++) {
+                char ch = line.charAt(k);
+                if (ch == '0' || ch == '1' || ch == '.') {
+                    active[n++] = width++;
+                } else if (ch == '#') {
+                    width++;
+                } else if (!Character.isWhitespace(ch)) {
+                    throw new IOException("第 " + lineNo + " 行有无法识别的字符：" + ch);
+                }
+            }
+            if (width == 0) continue;
+            cols = Math.max(cols, width);
+            lines.add(Arrays.copyOf(active, n));
+        }
+        if (lines.isEmpty()) {
+            throw new IOException("没有读到棋盘形状");
+        }
+        int rows = lines.size();
+        int[] rowStart = new int[rows + 1];
+        for (int i = 0; i < rows; i++) {
+            rowStart[i + 1] = rowStart[i] + lines.get(i).length;
+        }
+        int[] col = new int[rowStart[rows]];
+        for (int i = 0; i < rows; i++) {
+            System.arraycopy(lines.get(i), 0, col, rowStart[i], lines.get(i).length);
+        }
+        return new BoardMask(rows, cols, rowStart, col);
+    }
+
+    public static BoardMask read(Path file) throws IOException {
+        try (Reader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return parse(in);
+        }
+    }
+
+    /**
+     * 挖掉 [fromRow, toRow) × [fromCol, toCol) 后的新形状（如矩形挖去一角得到 L 形）
+     */
+    public BoardMask without(int fromRow, int fromCol, int toRow, int toCol) {
+        int[] newStart = new int[rows + 1];
+        int[] newCol = new int[col.length];
+        int n = 0;
+        for (int i = 0; i < rows; i++) {
+            boolean cut = i >= fromRow && i < toRow;
+            for (int v = rowStart[i]; v < rowStart[i + 1]; v++) {
+                if (cut && col[v] >= fromCol && col[v] < toCol) continue;
+                newCol[n++] = col[v];
+            }
+            newStart[i + 1] = n;
+        }
+        return new BoardMask(rows, cols, newStart, Arrays.copyOf(newCol, n));
+    }
+
+    public int getRows() { return rows; }
+    public int getCols() { return cols; }
+    /** 在盘格子数 */
+    public int getActiveCount() { return col.length; }
+
+    public boolean isActive(int i, int j) {
+        return index(i, j) >= 0;
+    }
+
+    /**
+     * (i, j) 的紧凑编号，不在盘上（含越出外框）时为 -1
+     */
+    int index(int i, int j) {
+        if (i < 0 || i >= rows || j < 0 || j >= cols) return -1;
+        int k = Arrays.binarySearch(col, rowStart[i], rowStart[i + 1], j);
+        return k >= 0 ? k : -1;
+    }
+
+    int rowStart(int i) { return rowStart[i]; }
+    int col(int v) { return col[v]; }
+
+    /**
+     * 按棋子编译邻接表，只含在盘落点
+     */
+    Adjacency adjacency(Piece piece) {
+        int n = col.length, moves = piece.getMoveCount();
+        int[] start = new int[n + 1];
+        int[] buf = new int[Math.max(16, n)];
+        int size = 0, max = 0;
+        for (int i = 0; i < rows; i++) {
+            for (int v = rowStart[i]; v < rowStart[i + 1]; v++) {
+                for (int k = 0; k < moves; k++) {
+                    int t = index(i + piece.dx(k), col[v] + piece.dy(k));
+                    if (t < 0) continue;
+                    if (size == buf.length) {
+                        buf = Arrays.copyOf(buf, (int) Math.min(Integer.MAX_VALUE - 8, 2L * size));
+                    }
+                    buf[size++] = t;
+                }
+                start[v + 1] = size;
+                max = Math.max(max, size - start[v]);
+            }
+        }
+        return new Adjacency(start, Arrays.copyOf(buf, size), max);
+    }
+
+    /**
+     * 在盘格子的位棋盘（外框大小）
+     */
+    public BitboardCover toBitboard() {
+        BitboardCover bb = new BitboardCover(rows, cols);
+        for (int i = 0; i < rows; i++) {
+            for (int v = rowStart[i]; v < rowStart[i + 1]; v++) {
+                bb.set(i, col[v]);
+            }
+        }
+        return bb;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof BoardMask)) return false;
+        BoardMask other = (BoardMask) o;
+        return rows == other.rows && cols == other.cols
+                && Arrays.equals(rowStart, other.rowStart) && Arrays.equals(col, other.col);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * rows + cols) + Arrays.hashCode(col);
+    }
+
+    @Override
+    public String toString() {
+        return rows + "×" + cols + "（" + col.length + " 格）";
+    }
+}
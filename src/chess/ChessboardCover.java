@@ -0,0 +1,1252 @@
+package chess;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * 马（及其他跳子，见 Piece）的极小满覆盖核心逻辑
+ * 内存映射引擎持有打开的文件，用完须 close
+ */
+public class ChessboardCover implements AutoCloseable {
+    private int rows;
+    private int cols;
+    private int[][] board;  // 1=马, 0=空
+    private int[] cellState;  // 行优先平铺：被攻击次数，有马时再加 HORSE_FLAG
+    private int uncovered;  // 既无马也未被攻击的格子数
+    private Engine engine;
+    private Piece piece = Piece.KNIGHT;
+    private MoveTable moves;  // 计数引擎按当前棋盘大小编译的走法表
+    private Strategy strategy = Strategy.MINIMAL;
+    private ExactCoverSolver.BoundListener boundListener;
+    private long parallelSeed = 1L;  // 并行极小化的随机种子
+    private SolutionCache cache;     // 为 null 时不使用缓存
+    private SolverMetrics metrics = defaultMetrics;  // 为 null 时不统计
+    private static volatile SolverMetrics defaultMetrics;
+    private volatile SolverMetrics.Listener progressListener;  // 只收本棋盘的进度，为 null 时不汇报
+    private Path mappedFile;         // MAPPED 引擎的棋盘文件
+    private BitboardCover bits;  // BITBOARD 引擎下的棋盘，board 只是按需展开的视图
+    private BoardMask mask;      // 不规则棋盘的形状，为 null 时是完整矩形
+    private BoardMask.Adjacency adjacency;  // 不规则棋盘的邻接表，此时 cellState 按紧凑编号索引
+    // cellState 中表示"本格有马"的位，远大于任何攻击次数
+    private static final int HORSE_FLAG = 1 << 30;
+
+    // 正方形棋盘
+    public ChessboardCover(int size) {
+        this(size, size);
+    }
+
+    // 矩形棋盘
+    public ChessboardCover(int rows, int cols) {
+        this(rows, cols, Engine.COUNTING);
+    }
+
+    // 指定存储引擎
+    public ChessboardCover(int rows, int cols, Engine engine) {
+        this(rows, cols, engine, Strategy.MINIMAL);
+    }
+
+    // 指定求解策略
+    public ChessboardCover(int rows, int cols, Strategy strategy) {
+        this(rows, cols, Engine.COUNTING, strategy);
+    }
+
+    public ChessboardCover(int rows, int cols, Engine engine, Strategy strategy) {
+        this(rows, cols, engine, strategy, null);
+    }
+
+    // 指定棋子
+    public ChessboardCover(int rows, int cols, Piece piece) {
+        this(rows, cols, Engine.COUNTING, Strategy.MINIMAL, null, piece);
+    }
+
+    // 带方案缓存
+    public ChessboardCover(int rows, int cols, Engine engine, Strategy strategy, SolutionCache cache) {
+        this(rows, cols, engine, strategy, cache, Piece.KNIGHT);
+    }
+
+    public ChessboardCover(int rows, int cols, Engine engine, Strategy strategy, SolutionCache cache, Piece piece) {
+        this.rows = rows;
+        this.cols = cols;
+        this.engine = engine;
+        this.strategy = strategy;
+        this.cache = cache;
+        this.piece = piece;
+        checkStrategy(rows, cols, strategy, piece);
+        allocate();
+        solve();
+    }
+
+    /**
+     * 不规则棋盘：只在 mask 的在盘格子上放马、要求覆盖（计数引擎）
+     */
+    public ChessboardCover(BoardMask mask) {
+        this(mask, Strategy.MINIMAL, Piece.KNIGHT);
+    }
+
+    public ChessboardCover(BoardMask mask, Strategy strategy, Piece piece) {
+        this(null, mask.getRows(), mask.getCols(), Engine.COUNTING, strategy, piece);
+        this.mask = mask;
+        checkMask(engine, strategy);
+        allocate();
+        solve();
+    }
+
+    /**
+     * 内存映射文件上求解，文件即方案，可用 openMapped 重新打开
+     */
+    public static ChessboardCover createMapped(Path file, int rows, int cols, Strategy strategy) {
+        ChessboardCover cover = new ChessboardCover(file, rows, cols, Engine.MAPPED, strategy, Piece.KNIGHT);
+        cover.allocate();
+        cover.solve();
+        return cover;
+    }
+
+    /**
+     * 只分配空棋盘、不求解：可先挂上缓存、进度监听等，再在任意线程调用 resetSize 求解
+     */
+    public static ChessboardCover unsolved(int rows, int cols, Engine engine, Strategy strategy, Piece piece) {
+        ChessboardCover cover = new ChessboardCover(null, rows, cols, engine, strategy, piece);
+        cover.allocate();
+        return cover;
+    }
+
+    /**
+     * 只分配空的不规则棋盘、不求解
+     */
+    public static ChessboardCover unsolved(BoardMask mask, Strategy strategy, Piece piece) {
+        ChessboardCover cover = new ChessboardCover(null, mask.getRows(), mask.getCols(), Engine.COUNTING,
+                strategy, piece);
+        cover.mask = mask;
+        checkMask(cover.engine, strategy);
+        cover.allocate();
+        return cover;
+    }
+
+    /**
+     * 打开已保存的内存映射方案，不重新求解（映射文件不记录棋子，按马打开）
+     */
+    public static ChessboardCover openMapped(Path file) throws IOException {
+        MappedBitStore store = MappedBitStore.open(file);
+        ChessboardCover cover = new ChessboardCover(file, store.getRows(), store.getCols(), Engine.MAPPED,
+                Strategy.MINIMAL, Piece.KNIGHT);
+        cover.bits = new BitboardCover(store);
+        return cover;
+    }
+
+    /**
+     * 载入二进制方案文件（见 SolutionFile），不重新求解。
+     * 超过 LOAD_MAP_CELLS 格时以写时复制方式映射文件，跳过整体校验（需要时先调用 SolutionFile.verify）。
+     * 这样得到的棋盘是 MAPPED 引擎但没有可重建的棋盘文件，之后 resetSize 或 resize 会释放映射并改用 BITBOARD 引擎
+     */
+    public static ChessboardCover load(Path file) throws IOException {
+        SolutionFile.Header header = SolutionFile.readHeader(file);
+        int rows = header.getRows(), cols = header.getCols();
+        Strategy strategy = header.getStrategy() != null ? header.getStrategy() : Strategy.MINIMAL;
+        Piece piece = header.getPiece();
+        if ((long) rows * cols > LOAD_MAP_CELLS) {
+            ChessboardCover cover = new ChessboardCover(null, rows, cols, Engine.MAPPED, strategy, piece);
+            cover.bits = new BitboardCover(MappedBitStore.openPrivate(file, rows, cols), piece);
+            return cover;
+        }
+        ChessboardCover cover = new ChessboardCover(null, rows, cols, Engine.BITBOARD, strategy, piece);
+        cover.bits = SolutionFile.read(file);
+        return cover;
+    }
+
+    /**
+     * 释放内存映射文件（其他引擎无操作）；关闭后不能再使用本棋盘
+     */
+    @Override
+    public void close() {
+        closeStore();
+    }
+
+    /**
+     * 落盘并关闭当前位棋盘的底层存储，丢弃引用，旧映射不会再被访问
+     */
+    private void closeStore() {
+        if (bits == null) return;
+        BitboardCover old = bits;
+        bits = null;
+        try {
+            old.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("关闭棋盘文件失败", e);
+        }
+    }
+
+    /**
+     * 保存为二进制方案文件（不规则棋盘只记录马，不记录形状）
+     */
+    public void save(Path file) throws IOException {
+        SolutionFile.write(file, toBitboard(), strategy);
+    }
+
+    private ChessboardCover(Path mappedFile, int rows, int cols, Engine engine, Strategy strategy, Piece piece) {
+        this.rows = rows;
+        this.cols = cols;
+        this.engine = engine;
+        this.strategy = strategy;
+        this.piece = piece;
+        this.mappedFile = mappedFile;
+        checkStrategy(rows, cols, strategy, piece);
+    }
+
+    /**
+     * 存储引擎
+     */
+    public enum Engine {
+        COUNTING,  // 平铺的增量攻击计数 + 编译走法表，int[][] 棋盘同步维护
+        BITBOARD,  // 每行打包成 long[]，整字移位计算攻击
+        MAPPED     // 位棋盘存放在内存映射文件中，不占堆（用 createMapped / openMapped 创建）
+    }
+
+    /**
+     * 求解策略
+     */
+    public enum Strategy {
+        MINIMAL("极小覆盖"),        // 全放马后逐个移除冗余马
+        EXACT("最小覆盖（精确）"),   // 分支定界，马数可证明最少
+        PARALLEL("并行极小覆盖"),    // 多线程分批移除邻域不相交的冗余马
+        TILING("周期铺砌构造");      // 内部铺周期马阵，只修补边界带，适合超大棋盘（仅限马）
+
+        private final String label;
+
+        Strategy(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() { return label; }
+
+        @Override
+        public String toString() { return label; }
+    }
+
+    // 精确求解支持的最大格子数（约 12×12）
+    public static final int EXACT_MAX_CELLS = 144;
+    // 载入方案时超过该格数就映射文件而不读进堆
+    public static final long LOAD_MAP_CELLS = 1L << 26;
+    // 有进度监听时，位棋盘极小化每扫过这么多格汇报一次
+    private static final int PROGRESS_CELLS = 1 << 16;
+
+    private static void checkStrategy(int rows, int cols, Strategy strategy, Piece piece) {
+        if (strategy == Strategy.EXACT && (long) rows * cols > EXACT_MAX_CELLS) {
+            throw new IllegalArgumentException("精确求解仅支持 " + EXACT_MAX_CELLS + " 格以内的棋盘");
+        }
+        if (strategy == Strategy.TILING && !piece.isKnight()) {
+            throw new IllegalArgumentException("周期铺砌构造仅支持马");
+        }
+    }
+
+    /**
+     * 不规则棋盘只支持计数引擎与极小、并行极小策略
+     */
+    private static void checkMask(Engine engine, Strategy strategy) {
+        if (engine != Engine.COUNTING) {
+            throw new IllegalArgumentException("不规则棋盘仅支持计数引擎");
+        }
+        if (strategy != Strategy.MINIMAL && strategy != Strategy.PARALLEL) {
+            throw new IllegalArgumentException("不规则棋盘仅支持" + Strategy.MINIMAL.getLabel() + "和"
+                    + Strategy.PARALLEL.getLabel());
+        }
+    }
+
+    /**
+     * 按当前策略求解，先查缓存（缓存按矩形大小索引，不规则棋盘不查）
+     */
+    private void solve() {
+        SolverMetrics m = activeMetrics();
+        long start = m != null ? m.begin() : 0;
+        boolean cached = cache != null && mask == null;
+        if (cached) {
+            BitboardCover hit = cache.get(rows, cols, strategy, piece, parallelSeed);
+            if (m != null) {
+                m.increment(hit != null ? SolverMetrics.Counter.CACHE_HITS : SolverMetrics.Counter.CACHE_MISSES);
+            }
+            if (hit != null) {
+                adopt(hit);
+                if (m != null) m.end(SolverMetrics.Phase.SOLVE, start);
+                return;
+            }
+        }
+        compute();
+        // 被中断的求解可能不完整，不进缓存
+        if (cached && !Thread.currentThread().isInterrupted()) {
+            cache.put(rows, cols, strategy, piece, parallelSeed, toBitboard());
+        }
+        if (m != null) m.end(SolverMetrics.Phase.SOLVE, start);
+    }
+
+    private void compute() {
+        SolverMetrics m = activeMetrics();
+        if (strategy == Strategy.TILING) {
+            long start = m != null ? m.begin() : 0;
+            if (bits != null) {
+                TilingConstruction.fill(bits);
+                syncView();
+            } else {
+                adopt(TilingConstruction.build(rows, cols));
+            }
+            if (m != null) m.end(SolverMetrics.Phase.TILING, start);
+            return;
+        }
+        if (strategy == Strategy.PARALLEL) {
+            fillBoard();
+            minimizeCoverParallel(parallelSeed);
+            return;
+        }
+        initMinimalCover();
+        if (strategy == Strategy.EXACT) {
+            // 以极小覆盖作为初始上界
+            long start = m != null ? m.begin() : 0;
+            ExactCoverSolver solver = new ExactCoverSolver(rows, cols, piece);
+            solver.setListener(boundListener);
+            adopt(solver.solve(toBitboard()));
+            if (m != null) {
+                m.add(SolverMetrics.Counter.EXACT_NODES, solver.getNodes());
+                m.end(SolverMetrics.Phase.EXACT_SEARCH, start);
+            }
+        }
+    }
+
+    /**
+     * 当前棋盘的位棋盘形式
+     */
+    BitboardCover toBitboard() {
+        if (bits != null) return bits;
+        if (mask != null) {
+            BitboardCover bb = new BitboardCover(rows, cols, piece);
+            forEachHorse(bb::set);
+            return bb;
+        }
+        return BitboardCover.fromIntBoard(rows, cols, board, piece);
+    }
+
+    /**
+     * 用求解结果替换当前棋盘
+     */
+    void adopt(BitboardCover result) {
+        if (bits != null) {
+            if (engine == Engine.MAPPED || !result.getPiece().equals(piece)) {
+                bits.copyFrom(result);
+            } else {
+                bits = result;
+            }
+            syncView();
+            return;
+        }
+        if (mask != null) {
+            int[] state = cellState;
+            for (int i = 0; i < rows; i++) {
+                for (int v = mask.rowStart(i); v < mask.rowStart(i + 1); v++) {
+                    state[v] = result.get(i, mask.col(v)) ? HORSE_FLAG : 0;
+                }
+            }
+            recountMasked();
+            syncView();
+            return;
+        }
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                board[i][j] = result.get(i, j) ? 1 : 0;
+            }
+        }
+        recountAttacks();
+    }
+
+    /**
+     * 按引擎分配棋盘存储
+     */
+    private void allocate() {
+        adjacency = null;
+        if (mask != null) {
+            // 存储与邻接表只随在盘格子数增长，int[][] 视图按需展开
+            bits = null;
+            board = null;
+            moves = null;
+            adjacency = mask.adjacency(piece);
+            cellState = new int[mask.getActiveCount()];
+            uncovered = cellState.length;
+        } else if (engine == Engine.MAPPED) {
+            if (mappedFile == null) {
+                throw new IllegalArgumentException("内存映射引擎请使用 createMapped 创建");
+            }
+            // 先释放旧映射再截断重建同一个文件
+            closeStore();
+            try {
+                bits = new BitboardCover(MappedBitStore.create(mappedFile, rows, cols), piece);
+            } catch (IOException e) {
+                throw new UncheckedIOException("无法创建棋盘文件：" + mappedFile, e);
+            }
+            board = null;
+            cellState = null;
+            moves = null;
+        } else if (engine == Engine.BITBOARD) {
+            bits = new BitboardCover(rows, cols, piece);
+            board = null;
+            cellState = null;
+            moves = null;
+        } else {
+            bits = null;
+            board = new int[rows][cols];
+            cellState = new int[rows * cols];
+            moves = MoveTable.compile(rows, cols, piece);
+        }
+    }
+
+    /**
+     * 初始化极小满覆盖
+     */
+    private void initMinimalCover() {
+        fillBoard();
+        minimizeCover();
+    }
+
+    /**
+     * 所有格子放马
+     */
+    private void fillBoard() {
+        SolverMetrics m = activeMetrics();
+        long start = m != null ? m.begin() : 0;
+        if (bits != null) {
+            bits.fill();
+            syncView();
+        } else if (mask != null) {
+            Arrays.fill(cellState, HORSE_FLAG);
+            recountMasked();
+            syncView();
+        } else {
+            for (int i = 0; i < rows; i++) {
+                Arrays.fill(board[i], 1);
+            }
+            recountAttacks();
+        }
+        if (m != null) m.end(SolverMetrics.Phase.FILL, start);
+    }
+
+    /**
+     * 根据当前棋盘重建攻击计数
+     */
+    private void recountAttacks() {
+        MoveTable t = moves;
+        int[] state = cellState;
+        Arrays.fill(state, 0);
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                if (board[i][j] == 1) {
+                    int v = i * cols + j;
+                    state[v] |= HORSE_FLAG;
+                    int p = t.rowClass[i] + t.colClass[j];
+                    for (int k = t.start[p], end = t.start[p + 1]; k < end; k++) {
+                        state[v + t.delta[k]]++;
+                    }
+                }
+            }
+        }
+        uncovered = 0;
+        for (int v : state) {
+            if (v == 0) uncovered++;
+        }
+    }
+
+    /**
+     * 不规则棋盘：按各格的马标记重建攻击计数
+     */
+    private void recountMasked() {
+        int[] state = cellState, start = adjacency.start, target = adjacency.target;
+        for (int v = 0; v < state.length; v++) {
+            state[v] &= HORSE_FLAG;
+        }
+        for (int v = 0; v < state.length; v++) {
+            if (state[v] >= HORSE_FLAG) {
+                for (int k = start[v], end = start[v + 1]; k < end; k++) {
+                    state[target[k]]++;
+                }
+            }
+        }
+        uncovered = 0;
+        for (int v : state) {
+            if (v == 0) uncovered++;
+        }
+    }
+
+    /**
+     * 位棋盘或不规则棋盘变化后刷新已展开的 int[][] 视图
+     */
+    private void syncView() {
+        if (board == null) return;
+        if (mask != null) {
+            for (int[] row : board) {
+                Arrays.fill(row, 0);
+            }
+            forEachHorse((i, j) -> board[i][j] = 1);
+            return;
+        }
+        int[][] fresh = bits.toIntBoard();
+        for (int i = 0; i < rows; i++) {
+            System.arraycopy(fresh[i], 0, board[i], 0, cols);
+        }
+    }
+
+    /**
+     * 检查是否为满覆盖
+     */
+    public boolean isFullCover() {
+        SolverMetrics m = activeMetrics();
+        if (m != null) {
+            m.increment(SolverMetrics.Counter.FULL_COVER_CHECKS);
+            // 计数引擎直接看 uncovered，不扫描
+            if (bits != null) m.add(SolverMetrics.Counter.CELLS_SCANNED, (long) rows * cols);
+        }
+        if (bits != null) return bits.isFullCover();
+        return uncovered == 0;
+    }
+
+    /**
+     * 检查位置是否被马攻击
+     */
+    public boolean isAttacked(int i, int j) {
+        if (bits != null) return bits.isAttacked(i, j);
+        if (mask != null) {
+            int v = mask.index(i, j);
+            return v >= 0 && (cellState[v] & ~HORSE_FLAG) > 0;
+        }
+        return (cellState[i * cols + j] & ~HORSE_FLAG) > 0;
+    }
+
+    /**
+     * 该格是否有马
+     */
+    public boolean hasHorse(int i, int j) {
+        if (bits != null) return bits.get(i, j);
+        if (mask != null) {
+            int v = mask.index(i, j);
+            return v >= 0 && cellState[v] >= HORSE_FLAG;
+        }
+        return board[i][j] == 1;
+    }
+
+    /**
+     * 该格是否在棋盘上（完整矩形时恒为真）
+     */
+    public boolean isActive(int i, int j) {
+        return mask == null || mask.isActive(i, j);
+    }
+
+    /**
+     * 放置一匹马，同步更新攻击计数；不规则棋盘上不能放在洞里
+     */
+    public void placeHorse(int i, int j) {
+        if (bits != null) {
+            bits.set(i, j);
+            if (board != null) board[i][j] = 1;
+            return;
+        }
+        if (mask != null) {
+            int v = mask.index(i, j);
+            if (v < 0) {
+                throw new IllegalArgumentException("(" + i + "," + j + ") 不在棋盘上");
+            }
+            if (cellState[v] >= HORSE_FLAG) return;
+            placeAt(v);
+            if (board != null) board[i][j] = 1;
+            return;
+        }
+        if (board[i][j] == 1) return;
+        board[i][j] = 1;
+        MoveTable t = moves;
+        int[] state = cellState;
+        int v = i * cols + j;
+        if (state[v] == 0) uncovered--;
+        state[v] |= HORSE_FLAG;
+        int p = t.rowClass[i] + t.colClass[j];
+        for (int k = t.start[p], end = t.start[p + 1]; k < end; k++) {
+            // 状态为 0 即既无马也未被攻击
+            if (state[v + t.delta[k]]++ == 0) uncovered--;
+        }
+    }
+
+    /**
+     * 移除一匹马，同步更新攻击计数
+     */
+    public void removeHorse(int i, int j) {
+        if (bits != null) {
+            bits.clear(i, j);
+            if (board != null) board[i][j] = 0;
+            return;
+        }
+        if (mask != null) {
+            int v = mask.index(i, j);
+            if (v < 0 || cellState[v] < HORSE_FLAG) return;
+            removeAt(v);
+            if (board != null) board[i][j] = 0;
+            return;
+        }
+        if (board[i][j] == 0) return;
+        board[i][j] = 0;
+        MoveTable t = moves;
+        int[] state = cellState;
+        int v = i * cols + j;
+        state[v] &= ~HORSE_FLAG;
+        if (state[v] == 0) uncovered++;
+        int p = t.rowClass[i] + t.colClass[j];
+        for (int k = t.start[p], end = t.start[p + 1]; k < end; k++) {
+            if (--state[v + t.delta[k]] == 0) uncovered++;
+        }
+    }
+
+    /**
+     * 判断马是否冗余：只检查本格及其落点
+     */
+    public boolean isRedundant(int i, int j) {
+        if (bits != null) return bits.isRedundant(i, j);
+        if (mask != null) {
+            int v = mask.index(i, j);
+            return v >= 0 && redundantAt(v);
+        }
+        int[] state = cellState;
+        int v = i * cols + j;
+        // 本格须有马且另被攻击
+        if (state[v] <= HORSE_FLAG) {
+            return false;
+        }
+        MoveTable t = moves;
+        int p = t.rowClass[i] + t.colClass[j];
+        for (int k = t.start[p], end = t.start[p + 1]; k < end; k++) {
+            // 落点空且只被这匹马攻击，移除后会失去覆盖
+            if (state[v + t.delta[k]] == 1) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 不规则棋盘上按紧凑编号放马、移马、判断冗余
+     */
+    private void placeAt(int v) {
+        int[] state = cellState, target = adjacency.target;
+        if (state[v] == 0) uncovered--;
+        state[v] |= HORSE_FLAG;
+        for (int k = adjacency.start[v], end = adjacency.start[v + 1]; k < end; k++) {
+            if (state[target[k]]++ == 0) uncovered--;
+        }
+    }
+
+    private void removeAt(int v) {
+        int[] state = cellState, target = adjacency.target;
+        state[v] &= ~HORSE_FLAG;
+        if (state[v] == 0) uncovered++;
+        for (int k = adjacency.start[v], end = adjacency.start[v + 1]; k < end; k++) {
+            if (--state[target[k]] == 0) uncovered++;
+        }
+    }
+
+    private boolean redundantAt(int v) {
+        int[] state = cellState, target = adjacency.target;
+        if (state[v] <= HORSE_FLAG) return false;
+        for (int k = adjacency.start[v], end = adjacency.start[v + 1]; k < end; k++) {
+            if (state[target[k]] == 1) return false;
+        }
+        return true;
+    }
+
+    /**
+     * 按行优先顺序访问每匹马（不规则棋盘）
+     */
+    private void forEachHorse(CellAction action) {
+        int[] state = cellState;
+        for (int i = 0; i < rows; i++) {
+            for (int v = mask.rowStart(i); v < mask.rowStart(i + 1); v++) {
+                if (state[v] >= HORSE_FLAG) action.apply(i, mask.col(v));
+            }
+        }
+    }
+
+    private interface CellAction {
+        void apply(int i, int j);
+    }
+
+    /**
+     * 清空棋盘
+     */
+    public void clearBoard() {
+        if (bits != null) {
+            bits.clearAll();
+            syncView();
+            return;
+        }
+        if (mask != null) {
+            Arrays.fill(cellState, 0);
+            uncovered = cellState.length;
+            syncView();
+            return;
+        }
+        for (int i = 0; i < rows; i++) {
+            Arrays.fill(board[i], 0);
+        }
+        Arrays.fill(cellState, 0);
+        uncovered = rows * cols;
+    }
+
+    /**
+     * 极小化覆盖：移除冗余马。调用线程被中断时尽快返回（结果仍是满覆盖，但可能不极小）
+     */
+    public void minimizeCover() {
+        SolverMetrics m = activeMetrics();
+        long start = m != null ? m.begin() : 0;
+        if (bits != null) {
+            if (m == null && progressListener == null) {
+                bits.minimize();
+            } else {
+                minimizeBits(m);
+            }
+            syncView();
+        } else if (mask != null) {
+            minimizeMasked(m);
+        } else {
+            boolean progress = reportsProgress(m);
+            long passes = 0, removed = 0;
+            boolean changed;
+            do {
+                changed = false;
+                passes++;
+                for (int i = 0; i < rows; i++) {
+                    for (int j = 0; j < cols; j++) {
+                        // 移除后仍满覆盖则为冗余
+                        if (isRedundant(i, j)) {
+                            removeHorse(i, j);
+                            changed = true;
+                            removed++;
+                        }
+                    }
+                    if (progress) progress(m, SolverMetrics.Phase.MINIMIZE, (i + 1) / (double) rows);
+                    if (Thread.currentThread().isInterrupted()) {
+                        changed = false;
+                        break;
+                    }
+                }
+            } while (changed);
+            if (m != null) {
+                long scanned = passes * rows * cols;
+                m.add(SolverMetrics.Counter.MINIMIZE_PASSES, passes);
+                m.add(SolverMetrics.Counter.REDUNDANCY_CHECKS, scanned);
+                m.add(SolverMetrics.Counter.CELLS_SCANNED, scanned);
+                m.add(SolverMetrics.Counter.KNIGHTS_REMOVED, removed);
+            }
+        }
+        if (m != null) m.end(SolverMetrics.Phase.MINIMIZE, start);
+    }
+
+    /**
+     * 不规则棋盘的极小化：逐行扫描在盘格子，扫描量只与在盘格子数有关
+     */
+    private void minimizeMasked(SolverMetrics m) {
+        boolean progress = reportsProgress(m);
+        long passes = 0, removed = 0;
+        boolean changed;
+        do {
+            changed = false;
+            passes++;
+            for (int i = 0; i < rows; i++) {
+                for (int v = mask.rowStart(i); v < mask.rowStart(i + 1); v++) {
+                    if (redundantAt(v)) {
+                        removeAt(v);
+                        if (board != null) board[i][mask.col(v)] = 0;
+                        changed = true;
+                        removed++;
+                    }
+                }
+                if (progress) progress(m, SolverMetrics.Phase.MINIMIZE, (i + 1) / (double) rows);
+                if (Thread.currentThread().isInterrupted()) {
+                    changed = false;
+                    break;
+                }
+            }
+        } while (changed);
+        if (m != null) {
+            long scanned = passes * cellState.length;
+            m.add(SolverMetrics.Counter.MINIMIZE_PASSES, passes);
+            m.add(SolverMetrics.Counter.REDUNDANCY_CHECKS, scanned);
+            m.add(SolverMetrics.Counter.CELLS_SCANNED, scanned);
+            m.add(SolverMetrics.Counter.KNIGHTS_REMOVED, removed);
+        }
+    }
+
+    /**
+     * 带统计或进度的位棋盘极小化（m 可为 null）：与 BitboardCover.minimize 顺序相同，按行块扫描以便汇报进度
+     */
+    private void minimizeBits(SolverMetrics m) {
+        boolean progress = reportsProgress(m);
+        int step = progress ? Math.max(1, PROGRESS_CELLS / cols) : rows;
+        boolean changed;
+        do {
+            // 每遍检查的正是遍开始时的每匹马
+            int before = m != null ? bits.countHorses() : 0;
+            changed = false;
+            for (int from = 0; from < rows; from += step) {
+                int to = Math.min(rows, from + step);
+                changed |= bits.minimizeRows(from, to);
+                if (progress) progress(m, SolverMetrics.Phase.MINIMIZE, to / (double) rows);
+                if (Thread.currentThread().isInterrupted()) {
+                    changed = false;
+                    break;
+                }
+            }
+            if (m != null) {
+                m.increment(SolverMetrics.Counter.MINIMIZE_PASSES);
+                m.add(SolverMetrics.Counter.REDUNDANCY_CHECKS, before);
+                m.add(SolverMetrics.Counter.CELLS_SCANNED, (long) rows * cols);
+                m.add(SolverMetrics.Counter.KNIGHTS_REMOVED, before - bits.countHorses());
+            }
+        } while (changed);
+    }
+
+    /**
+     * 统计监听器或本棋盘的进度监听器是否需要进度
+     */
+    private boolean reportsProgress(SolverMetrics m) {
+        return progressListener != null || (m != null && m.hasListeners());
+    }
+
+    private void progress(SolverMetrics m, SolverMetrics.Phase phase, double fraction) {
+        if (m != null) m.progress(phase, fraction);
+        SolverMetrics.Listener listener = progressListener;
+        if (listener != null) listener.onProgress(phase, fraction);
+    }
+
+    /**
+     * 并行极小化：同一种子得到相同结果
+     */
+    public void minimizeCoverParallel(long seed) {
+        SolverMetrics m = activeMetrics();
+        long start = m != null ? m.begin() : 0;
+        int before = m != null ? countHorses() : 0;
+        long cells = mask != null ? mask.getActiveCount() : (long) rows * cols;
+        ParallelMinimizer minimizer = new ParallelMinimizer(seed);
+        if (bits != null) {
+            minimizer.minimize(rows, cols, piece.getReach(), bits::minimizeRows);
+            syncView();
+        } else if (mask != null) {
+            minimizer.minimize(rows, cols, piece.getReach(), this::sweepMaskedRows);
+            syncView();
+        } else {
+            minimizer.minimize(rows, cols, piece.getReach(), this::sweepRedundantRows);
+        }
+        if (m != null) {
+            m.increment(SolverMetrics.Counter.MINIMIZE_PASSES);
+            m.add(SolverMetrics.Counter.REDUNDANCY_CHECKS, bits != null ? before : cells);
+            m.add(SolverMetrics.Counter.CELLS_SCANNED, cells);
+            m.add(SolverMetrics.Counter.KNIGHTS_REMOVED, before - countHorses());
+            m.end(SolverMetrics.Phase.PARALLEL_MINIMIZE, start);
+        }
+    }
+
+    /**
+     * 局部搜索改进当前覆盖，直到 deadlineNanos（System.nanoTime 时刻）或调用线程被中断。
+     * 每找到马更少的满覆盖就回调 listener（在搜索线程上，可为 null），结束时采用最好结果，返回最终马数。
+     * 局部搜索只支持完整矩形
+     */
+    public int improve(long deadlineNanos, LocalSearchOptimizer.ImprovementListener listener) {
+        if (mask != null) {
+            throw new IllegalStateException("不规则棋盘暂不支持局部搜索");
+        }
+        SolverMetrics m = activeMetrics();
+        long start = m != null ? m.begin() : 0;
+        LocalSearchOptimizer optimizer = new LocalSearchOptimizer(rows, cols, piece);
+        optimizer.setSeed(parallelSeed);
+        optimizer.setListener((cover, knights) -> {
+            if (m != null) m.increment(SolverMetrics.Counter.LOCAL_SEARCH_IMPROVEMENTS);
+            if (listener != null) listener.onImproved(cover, knights);
+        });
+        if (!isFullCover()) {
+            initMinimalCover();
+        }
+        adopt(optimizer.optimize(toBitboard(), deadlineNanos));
+        if (m != null) m.end(SolverMetrics.Phase.LOCAL_SEARCH, start);
+        return countHorses();
+    }
+
+    /**
+     * 单遍扫描 [fromRow, toRow) 行，移除冗余马（供并行行带调用）
+     * 移除冗余马不会产生未覆盖格，因此不改动 uncovered
+     */
+    private void sweepRedundantRows(int fromRow, int toRow) {
+        MoveTable t = moves;
+        int[] state = cellState;
+        for (int i = fromRow; i < toRow; i++) {
+            for (int j = 0; j < cols; j++) {
+                if (isRedundant(i, j)) {
+                    board[i][j] = 0;
+                    int v = i * cols + j;
+                    state[v] &= ~HORSE_FLAG;
+                    int p = t.rowClass[i] + t.colClass[j];
+                    for (int k = t.start[p], end = t.start[p + 1]; k < end; k++) {
+                        state[v + t.delta[k]]--;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 不规则棋盘单遍扫描 [fromRow, toRow) 行（供并行行带调用），不改动 uncovered
+     */
+    private void sweepMaskedRows(int fromRow, int toRow) {
+        int[] state = cellState, start = adjacency.start, target = adjacency.target;
+        for (int v = mask.rowStart(fromRow), last = mask.rowStart(toRow); v < last; v++) {
+            if (redundantAt(v)) {
+                state[v] &= ~HORSE_FLAG;
+                for (int k = start[v], end = start[v + 1]; k < end; k++) {
+                    state[target[k]]--;
+                }
+            }
+        }
+    }
+
+    /**
+     * 统计马的数量
+     */
+    public int countHorses() {
+        if (bits != null) return bits.countHorses();
+        if (mask != null) {
+            int count = 0;
+            for (int v : cellState) {
+                if (v >= HORSE_FLAG) count++;
+            }
+            return count;
+        }
+        int count = 0;
+        for (int[] row : board) {
+            for (int cell : row) {
+                if (cell == 1) count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 计算合适的单元格大小（整盘放进 maxPixel 以内，最小 1 像素，界面可再缩放）
+     */
+    public int calculateOptimalCellSize(int maxPixel, int defaultSize) {
+        int size = Math.max(rows, cols);
+        int minCellSize = Math.max(1, maxPixel / size);
+        return Math.min(defaultSize, minCellSize);
+    }
+
+    /**
+     * 回溯移除：从第 idx 格起迭代试探（board 须为本对象的 getBoard()）
+     */
+    public boolean backtrackRemove(int idx, int rows, int cols, int[][] board) {
+        RemovalSweep sweep = new RemovalSweep(this);
+        sweep.resumeFrom(idx);
+        return sweep.run();
+    }
+
+    /**
+     * 回溯移除（带回调）
+     */
+    public boolean backtrackRemoveWithCallback(int idx, int rows, int cols, int[][] board, DemoCallback callback) {
+        RemovalSweep sweep = new RemovalSweep(this, callback);
+        sweep.resumeFrom(idx);
+        return sweep.run();
+    }
+
+    /**
+     * 演示回调接口
+     */
+    public interface DemoCallback {
+        void onStateChanged();
+
+        /**
+         * 单个格子变化，默认按整体变化处理；界面可只重绘该格
+         */
+        default void onCellChanged(int i, int j) {
+            onStateChanged();
+        }
+
+        /**
+         * 整体进度，fraction 在 [0, 1]，按行汇报
+         */
+        default void onProgress(double fraction) {
+        }
+    }
+
+    public int getRows() { return rows; }
+    public int getCols() { return cols; }
+    public int getSize() { return rows; }
+    public Engine getEngine() { return engine; }
+    public Strategy getStrategy() { return strategy; }
+    public Piece getPiece() { return piece; }
+    /** 不规则棋盘的形状，完整矩形时为 null */
+    public BoardMask getMask() { return mask; }
+
+    /**
+     * 设置求解策略，下次 resetSize 时生效
+     */
+    public void setStrategy(Strategy strategy) {
+        this.strategy = strategy;
+    }
+
+    /**
+     * 设置棋子，下次 resetSize 时生效
+     */
+    public void setPiece(Piece piece) {
+        this.piece = piece;
+    }
+
+    /**
+     * 把棋盘写回底层存储（内存映射引擎时落盘）
+     */
+    public void flush() {
+        if (bits != null) bits.flush();
+    }
+
+    /**
+     * 之后新建的棋盘默认使用的统计对象（null 关闭），构造时的求解也会记账
+     */
+    public static void setDefaultMetrics(SolverMetrics metrics) {
+        defaultMetrics = metrics;
+    }
+
+    /**
+     * 挂上求解统计（null 关闭），之后的求解与查询都会记账
+     */
+    public void setMetrics(SolverMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public SolverMetrics getMetrics() { return metrics; }
+
+    /**
+     * 只接收本棋盘求解进度的监听器（在求解线程上回调，null 取消），与全局统计的监听器互不影响
+     */
+    public void setProgressListener(SolverMetrics.Listener listener) {
+        this.progressListener = listener;
+    }
+
+    /**
+     * 当前生效的统计对象，未设置或已关闭时为 null
+     */
+    SolverMetrics activeMetrics() {
+        SolverMetrics m = metrics;
+        return m != null && m.isEnabled() ? m : null;
+    }
+
+    /**
+     * 设置方案缓存，下次 resetSize 时生效
+     */
+    public void setSolutionCache(SolutionCache cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * 设置并行极小化的随机种子，下次 resetSize 时生效
+     */
+    public void setParallelSeed(long seed) {
+        this.parallelSeed = seed;
+    }
+
+    /**
+     * 精确求解时上下界变化的回调
+     */
+    public void setBoundListener(ExactCoverSolver.BoundListener listener) {
+        this.boundListener = listener;
+    }
+
+    /**
+     * 获取棋盘（位棋盘引擎下首次调用时展开，之后随落子同步）
+     */
+    public int[][] getBoard() {
+        if (bits != null && board == null) {
+            board = bits.toIntBoard();
+        } else if (mask != null && board == null) {
+            board = new int[rows][cols];
+            syncView();
+        }
+        return board;
+    }
+
+    // 重置棋盘大小
+    public void resetSize(int newSize) {
+        resetSize(newSize, newSize);
+    }
+
+    public void resetSize(int rows, int cols) {
+        checkStrategy(rows, cols, strategy, piece);
+        this.rows = rows;
+        this.cols = cols;
+        this.mask = null;
+        if (engine == Engine.MAPPED && mappedFile == null && bits != null) {
+            // load 映射的方案文件不能截断重建，换成内存中的位棋盘
+            closeStore();
+            engine = Engine.BITBOARD;
+        }
+        allocate();
+        solve();
+    }
+
+    public void resize(int newSize) {
+        resize(newSize, newSize);
+    }
+
+    /**
+     * 保留当前方案改变棋盘大小：重叠部分原样复制，只在新增格子和裁边处补马，再只在边界带内去掉冗余马。
+     * 边界带为离裁边 3 × 跨度以内的格子：裁掉的马只会让 1 个跨度内的格子失去覆盖，在那里补的马
+     * 只会让再往里 2 个跨度内的马变冗余，更远处不受影响。工作量随变化的格子数增长而不是整盘面积。
+     * 结果仍是极小覆盖，但不一定与从头求解相同；不查也不写方案缓存。
+     * 只适用于计数和位棋盘引擎上的极小、并行极小策略，且当前须为满覆盖；其余情况退回 resetSize。
+     * 不规则棋盘的形状没有"放大"的含义，抛出 IllegalStateException，请用 resetSize(BoardMask)
+     */
+    public void resize(int rows, int cols) {
+        if (mask != null) {
+            throw new IllegalStateException("不规则棋盘不能调整大小，请用 resetSize(BoardMask) 换形状");
+        }
+        if (engine == Engine.MAPPED
+                || (strategy != Strategy.MINIMAL && strategy != Strategy.PARALLEL) || !isFullCover()) {
+            resetSize(rows, cols);
+            return;
+        }
+        checkStrategy(rows, cols, strategy, piece);
+        SolverMetrics m = activeMetrics();
+        long start = m != null ? m.begin() : 0;
+        int band = 3 * piece.getReach();
+        int rowLo = Math.max(0, Math.min(this.rows, rows) - band);
+        int colLo = Math.max(0, Math.min(this.cols, cols) - band);
+        int oldRows = this.rows, oldCols = this.cols;
+        if (bits != null) {
+            copyBits(rows, cols);
+        } else {
+            copyCounting(rows, cols, rowLo, colLo);
+        }
+        long removed = 0, checks = 0;
+        // 补马：新增格子全放马（同从头求解的先放满再删），边界带内其余未被覆盖的格子也放马
+        for (int i = 0; i < rows; i++) {
+            for (int j = i >= rowLo ? 0 : colLo; j < cols; j++) {
+                if (!hasHorse(i, j) && (i >= oldRows || j >= oldCols || !isAttacked(i, j))) {
+                    placeHorse(i, j);
+                }
+            }
+        }
+        // 去冗余：移除不会让别的马变冗余，但与 minimizeCover 一样扫到不再变化
+        boolean changed;
+        do {
+            changed = false;
+            for (int i = 0; i < rows; i++) {
+                for (int j = i >= rowLo ? 0 : colLo; j < cols; j++) {
+                    checks++;
+                    if (isRedundant(i, j)) {
+                        removeHorse(i, j);
+                        changed = true;
+                        removed++;
+                    }
+                }
+            }
+        } while (changed);
+        if (m != null) {
+            m.add(SolverMetrics.Counter.REDUNDANCY_CHECKS, checks);
+            m.add(SolverMetrics.Counter.KNIGHTS_REMOVED, removed);
+            m.end(SolverMetrics.Phase.WARM_RESIZE, start);
+        }
+    }
+
+    /**
+     * 位棋盘引擎：重叠部分整字复制到新大小的位棋盘
+     */
+    private void copyBits(int newRows, int newCols) {
+        BitboardCover old = bits;
+        BitboardCover next = new BitboardCover(newRows, newCols, piece);
+        int rowCut = Math.min(rows, newRows), colCut = Math.min(cols, newCols);
+        int words = (colCut + 63) >>> 6;
+        long lastMask = (colCut & 63) == 0 ? -1L : (1L << (colCut & 63)) - 1;
+        for (int i = 0; i < rowCut; i++) {
+            for (int w = 0; w < words; w++) {
+                long word = old.getWord(i, w);
+                next.setWord(i, w, w == words - 1 ? word & lastMask : word);
+            }
+        }
+        bits = next;
+        board = null;
+        rows = newRows;
+        cols = newCols;
+    }
+
+    /**
+     * 计数引擎：重叠部分按行复制棋盘和攻击计数，减去被裁掉的马的攻击，补上原边界附近的马对新格子的攻击；
+     * 只有边界带内的计数会变，未覆盖格数按边界带前后的差值更新
+     */
+    private void copyCounting(int newRows, int newCols, int rowLo, int colLo) {
+        int[][] oldBoard = board;
+        int[] oldState = cellState;
+        MoveTable oldMoves = moves;
+        int oldRows = rows, oldCols = cols;
+        int rowCut = Math.min(oldRows, newRows), colCut = Math.min(oldCols, newCols);
+        int before = countZeros(oldState, oldRows, oldCols, rowLo, colLo);
+
+        int[][] nextBoard = new int[newRows][newCols];
+        int[] state = new int[newRows * newCols];
+        for (int i = 0; i < rowCut; i++) {
+            System.arraycopy(oldBoard[i], 0, nextBoard[i], 0, colCut);
+            System.arraycopy(oldState, i * oldCols, state, i * newCols, colCut);
+        }
+        // 裁掉的格子：右侧 [colCut, oldCols) 与下方 [rowCut, oldRows)
+        for (int i = 0; i < oldRows; i++) {
+            for (int j = i < rowCut ? colCut : 0; j < oldCols; j++) {
+                if (oldBoard[i][j] != 1) continue;
+                int p = oldMoves.rowClass[i] + oldMoves.colClass[j];
+                for (int k = oldMoves.start[p], end = oldMoves.start[p + 1]; k < end; k++) {
+                    int ti = i + oldMoves.dRow[k], tj = j + oldMoves.dCol[k];
+                    if (ti < rowCut && tj < colCut) state[ti * newCols + tj]--;
+                }
+            }
+        }
+        // 离原边界不到一个跨度的马，原来落到盘外的走法现在可能落在新格子上
+        MoveTable next = MoveTable.compile(newRows, newCols, piece);
+        int reach = piece.getReach();
+        int nearRow = Math.max(0, rowCut - reach), nearCol = Math.max(0, colCut - reach);
+        for (int i = 0; i < rowCut; i++) {
+            for (int j = i >= nearRow ? 0 : nearCol; j < colCut; j++) {
+                if (nextBoard[i][j] != 1) continue;
+                int p = next.rowClass[i] + next.colClass[j];
+                for (int k = next.start[p], end = next.start[p + 1]; k < end; k++) {
+                    int ti = i + next.dRow[k], tj = j + next.dCol[k];
+                    if (ti >= oldRows || tj >= oldCols) state[ti * newCols + tj]++;
+                }
+            }
+        }
+        board = nextBoard;
+        cellState = state;
+        moves = next;
+        rows = newRows;
+        cols = newCols;
+        uncovered += countZeros(state, newRows, newCols, rowLo, colLo) - before;
+    }
+
+    /**
+     * 边界带（i >= rowLo 或 j >= colLo）内状态为 0 的格子数
+     */
+    private static int countZeros(int[] state, int rows, int cols, int rowLo, int colLo) {
+        int zeros = 0;
+        for (int i = 0; i < rows; i++) {
+            for (int j = i >= rowLo ? 0 : colLo, v = i * cols + j; j < cols; j++, v++) {
+                if (state[v] == 0) zeros++;
+            }
+        }
+        return zeros;
+    }
+
+    /**
+     * 换成不规则棋盘并重新求解（仅计数引擎）
+     */
+    public void resetSize(BoardMask mask) {
+        checkStrategy(mask.getRows(), mask.getCols(), strategy, piece);
+        checkMask(engine, strategy);
+        this.rows = mask.getRows();
+        this.cols = mask.getCols();
+        this.mask = mask;
+        allocate();
+        solve();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,1012 @@
+package chess;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.File;
+import java.io.InputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.imageio.ImageIO;
+
+public class ChessboardGUI extends JFrame {
+    private ChessboardCover cover;
+    private JPanel chessPanel;
+    private JScrollPane scrollPane;
+    private JTextField sizeField;
+    private JTextField rowsField;
+    private JTextField colsField;
+    private JComboBox<ChessboardCover.Strategy> strategyBox;
+    private JComboBox<Piece> pieceBox;
+    private JLabel horseCountLabel;
+    private JProgressBar progressBar;
+    private volatile double demoProgress;  // 演示线程写，动画帧里读
+    private BufferedImage horseImg;
+    private BufferedImage horseSprite;   // 按当前格子大小缩放后的马图
+    private BufferedImage boardImage;    // 静态棋盘缓存
+    private int boardImageRows;
+    private int boardImageCols;
+    private int boardImageCellSize;
+    private BoardMask boardImageMask;
+    private BufferedImage overviewImage; // 缩略图：一格一像素
+    private int[][] overviewSource;      // 缩略图对应的快照棋盘
+
+    private Thread demoThread;  // 演示或局部搜索的后台线程
+    private SolutionCache solutionCache;
+    private BoardMask boardMask;  // 载入的棋盘形状，为 null 时按行列数生成矩形
+    // 生成覆盖的单个后台线程：最多排队一个请求，更新的请求挤掉还没开始的旧请求；以下字段只在事件线程上读写
+    private final ExecutorService generator = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(1), r -> {
+        Thread t = new Thread(r, "cover-generate");
+        t.setDaemon(true);
+        return t;
+    }, new ThreadPoolExecutor.DiscardOldestPolicy());
+    private Future<?> generation;   // 进行中的生成任务，没有时为 null
+    private long generationId;      // 每次请求加一，旧任务的结果按编号丢弃
+    private volatile double generationProgress;  // 生成线程写，进度定时器读；负数表示尚无进度
+    private Timer generationTimer;
+    private JButton cancelBtn;
+    private DemoAnimator animator;
+    private JSlider speedSlider;
+    private JButton genBtn;
+    private JButton demoBtn;
+    private JButton improveBtn;
+    private JButton stopBtn;
+    private JButton maskBtn;
+    private JButton rectBtn;
+
+    private static final int CELL_SIZE = 50;
+    private static final int MAX_BOARD_PIXEL = 600;
+    private int currentCellSize;
+    private static final int BOARD_PADDING = 28;
+    private static final int MAX_CELL_SIZE = 120;
+    // 格子小于该值时改画一格一像素的缩略图
+    private static final int OVERVIEW_CELL_SIZE = 4;
+    // 格子小于该值时不画行列标记、马改用圆点
+    private static final int DETAIL_CELL_SIZE = 16;
+    // 静态棋盘缓存图的像素上限，更大的棋盘只画可见格子
+    private static final long MAX_CACHED_BOARD_PIXELS = 4L << 20;
+    private static final double ZOOM_STEP = 1.25;
+    private static final Color LIGHT_CELL = new Color(240, 217, 181);
+    private static final Color DARK_CELL = new Color(181, 136, 99);
+    private static final Color GRID_COLOR = new Color(90, 70, 50);
+    private static final Color LABEL_COLOR = new Color(60, 60, 60);
+    private static final Color FRAME_COLOR = new Color(120, 85, 55);
+    private static final Color SHADOW_COLOR = new Color(0, 0, 0, 40);
+    private static final Color HORSE_MARK_COLOR = new Color(30, 30, 30);
+    private static final Color HOLE_COLOR = new Color(95, 65, 40);
+    private static final String IMAGE_PATH = "horse.png";
+    private static final String CACHE_DIR = ".chess-cover-cache";
+    private static final int DEMO_FPS = 60;
+    // 演示速度档位对应的每步停顿（毫秒），最后一档为全速
+    private static final int[] DEMO_STEP_DELAYS = {300, 150, 80, 30, 10, 1, 0};
+    private static final int DEMO_DEFAULT_SPEED = 1;
+    private static final int IMPROVE_SECONDS = 10;
+    private static final int GENERATION_POLL_MILLIS = 100;
+
+    public ChessboardGUI() {
+        System.setProperty("file.encoding", "UTF-8");
+        ChessboardCover.setDefaultMetrics(SolverMetrics.shared());
+        solutionCache = new SolutionCache(java.nio.file.Paths.get(System.getProperty("user.home"), CACHE_DIR));
+        // 先显示空棋盘，覆盖在后台生成
+        cover = ChessboardCover.unsolved(8, 8, ChessboardCover.Engine.COUNTING, ChessboardCover.Strategy.MINIMAL,
+                Piece.KNIGHT);
+        cover.setSolutionCache(solutionCache);
+        this.currentCellSize = CELL_SIZE;
+        this.animator = new DemoAnimator(DEMO_FPS, this::onDemoFrame);
+        animator.setStepDelay(DEMO_STEP_DELAYS[DEMO_DEFAULT_SPEED]);
+        animator.show(cover.getBoard());
+        loadHorseImage();
+        initGUI();
+        regenerateCover();
+    }
+
+    /**
+     * 初始化界面
+     */
+    private void initGUI() {
+        setTitle("国际象棋中马的极小满覆盖");
+        setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        setLayout(new BorderLayout());
+
+        JPanel controlPanel = new JPanel();
+        controlPanel.setBorder(BorderFactory.createEmptyBorder(12, 12, 12, 12));
+        controlPanel.setBackground(new Color(248, 248, 248));
+
+        JPanel inputPanel = new JPanel();
+        inputPanel.setBackground(new Color(248, 248, 248));
+        inputPanel.add(new JLabel("行数："));
+
+        rowsField = new JTextField("8", 3);
+        rowsField.setFont(rowsField.getFont().deriveFont(12f));
+        inputPanel.add(rowsField);
+
+        inputPanel.add(new JLabel("列数："));
+
+        colsField = new JTextField("8", 3);
+        colsField.setFont(colsField.getFont().deriveFont(12f));
+        inputPanel.add(colsField);
+
+        strategyBox = new JComboBox<>(ChessboardCover.Strategy.values());
+        strategyBox.setFont(strategyBox.getFont().deriveFont(12f));
+        inputPanel.add(strategyBox);
+
+        pieceBox = new JComboBox<>(Piece.presets());
+        pieceBox.setFont(pieceBox.getFont().deriveFont(12f));
+        pieceBox.setEditable(true);
+        pieceBox.setToolTipText("可直接输入跳步，如 1,4 或 0,1+1,1");
+        inputPanel.add(pieceBox);
+
+        maskBtn = createStyledButton("载入形状");
+        maskBtn.setToolTipText("从文本文件载入不规则棋盘：'#' 为洞，'0'/'1'/'.' 为棋盘格");
+        maskBtn.addActionListener(e -> loadMask());
+        inputPanel.add(maskBtn);
+
+        rectBtn = createStyledButton("矩形棋盘");
+        rectBtn.addActionListener(e -> clearMask());
+        rectBtn.setEnabled(false);
+        inputPanel.add(rectBtn);
+
+        controlPanel.add(inputPanel);
+
+        sizeField = new JTextField("8", 5);
+        sizeField.setVisible(false);
+
+        genBtn = createStyledButton("生成极小覆盖");
+        genBtn.addActionListener(e -> regenerateCover());
+        controlPanel.add(genBtn);
+
+        demoBtn = createStyledButton("极小满覆盖试探过程演示");
+        demoBtn.addActionListener(e -> demoBacktracking());
+        controlPanel.add(demoBtn);
+
+        improveBtn = createStyledButton("局部搜索改进");
+        improveBtn.setToolTipText("在 " + IMPROVE_SECONDS + " 秒内尝试用更少的马覆盖，找到更好的就立即显示");
+        improveBtn.addActionListener(e -> improveCover());
+        controlPanel.add(improveBtn);
+
+        stopBtn = createStyledButton("停止演示");
+        stopBtn.addActionListener(e -> stopDemo());
+        stopBtn.setEnabled(false);
+        controlPanel.add(stopBtn);
+
+        speedSlider = new JSlider(0, DEMO_STEP_DELAYS.length - 1, DEMO_DEFAULT_SPEED);
+        speedSlider.setPreferredSize(new Dimension(90, speedSlider.getPreferredSize().height));
+        speedSlider.setOpaque(false);
+        speedSlider.setToolTipText("演示速度（最右为全速）");
+        speedSlider.addChangeListener(e -> animator.setStepDelay(DEMO_STEP_DELAYS[speedSlider.getValue()]));
+        controlPanel.add(new JLabel("速度："));
+        controlPanel.add(speedSlider);
+
+        JButton exportBtn = createStyledButton("导出方案");
+        exportBtn.addActionListener(e -> {
+            SolutionExporter exporter = new SolutionExporter(cover.getRows(), cover.getCols(), animator.getBoard(),
+                    cover.getStrategy());
+            exporter.setPiece(cover.getPiece());
+            exporter.setMask(cover.getMask());
+            exporter.printToConsole();
+            exporter.showExportDialog(this);
+        });
+        controlPanel.add(exportBtn);
+
+        horseCountLabel = new JLabel("马数: 0");
+        horseCountLabel.setFont(horseCountLabel.getFont().deriveFont(12f));
+        horseCountLabel.setForeground(new Color(80, 80, 80));
+        controlPanel.add(horseCountLabel);
+
+        progressBar = new JProgressBar(0, 1000);
+        progressBar.setPreferredSize(new Dimension(90, 12));
+        progressBar.setVisible(false);
+        controlPanel.add(progressBar);
+
+        cancelBtn = createStyledButton("取消生成");
+        cancelBtn.addActionListener(e -> cancelGeneration());
+        cancelBtn.setVisible(false);
+        controlPanel.add(cancelBtn);
+
+        generationTimer = new Timer(GENERATION_POLL_MILLIS, e -> {
+            double p = generationProgress;
+            if (p >= 0) {
+                progressBar.setIndeterminate(false);
+                progressBar.setValue((int) (p * progressBar.getMaximum()));
+            }
+        });
+
+        add(controlPanel, BorderLayout.NORTH);
+
+        chessPanel = new BoardPanel();
+        chessPanel.setBackground(new Color(245, 245, 245));
+        installZoomAndPan();
+        scrollPane = new JScrollPane(chessPanel);
+        scrollPane.setBorder(BorderFactory.createEmptyBorder());
+        add(scrollPane, BorderLayout.CENTER);
+
+        pack();
+        setLocationRelativeTo(null);
+        setVisible(true);
+    }
+
+    /**
+     * 创建样式按钮
+     */
+    private JButton createStyledButton(String text) {
+        JButton btn = new JButton(text) {
+            @Override
+            protected void paintComponent(Graphics g) {
+                Graphics2D g2d = (Graphics2D) g;
+                g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+                // 绘制圆角背景
+                Color bgColor = getModel().isPressed() ?
+                    new Color(100, 70, 40) :
+                    new Color(140, 100, 60);
+                g2d.setColor(bgColor);
+                g2d.fillRoundRect(0, 0, getWidth(), getHeight(), 8, 8);
+
+                // 绘制文字
+                super.paintComponent(g);
+            }
+        };
+        btn.setFont(btn.getFont().deriveFont(Font.BOLD, 12f));
+        btn.setForeground(Color.WHITE);
+        btn.setBackground(new Color(140, 100, 60));
+        btn.setBorderPainted(false);
+        btn.setContentAreaFilled(false);
+        btn.setFocusPainted(false);
+        btn.setMargin(new Insets(6, 12, 6, 12));
+        return btn;
+    }
+
+    /**
+     * 更新马的数量显示
+     */
+    private void updateHorseCount() {
+        int count = animator.getHorseCount();
+        horseCountLabel.setText("马数: " + count);
+        SolverMetrics metrics = cover.getMetrics();
+        horseCountLabel.setToolTipText(metrics != null ? "累计统计：" + metrics : null);
+    }
+
+    /**
+     * 更新单元格大小
+     */
+    private void updateCellSize() {
+        currentCellSize = cover.calculateOptimalCellSize(MAX_BOARD_PIXEL, CELL_SIZE);
+    }
+
+    /**
+     * 棋盘面板：大小随缩放变化，比视口小时居中铺满视口
+     */
+    private class BoardPanel extends JPanel implements Scrollable {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            super.paintComponent(g);
+            drawChessboard(g);
+        }
+
+        @Override
+        public Dimension getPreferredSize() {
+            int boardHeight = cover.getRows() * currentCellSize + BOARD_PADDING * 2;
+            int boardWidth = cover.getCols() * currentCellSize + BOARD_PADDING * 2;
+            return new Dimension(boardWidth, boardHeight);
+        }
+
+        @Override
+        public Dimension getPreferredScrollableViewportSize() {
+            Dimension pref = getPreferredSize();
+            int max = MAX_BOARD_PIXEL + BOARD_PADDING * 2;
+            return new Dimension(Math.min(pref.width, max), Math.min(pref.height, max));
+        }
+
+        @Override
+        public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+            return Math.max(16, currentCellSize);
+        }
+
+        @Override
+        public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+            return orientation == SwingConstants.VERTICAL ? visibleRect.height : visibleRect.width;
+        }
+
+        @Override
+        public boolean getScrollableTracksViewportWidth() {
+            return getParent() instanceof JViewport && getParent().getWidth() > getPreferredSize().width;
+        }
+
+        @Override
+        public boolean getScrollableTracksViewportHeight() {
+            return getParent() instanceof JViewport && getParent().getHeight() > getPreferredSize().height;
+        }
+    }
+
+    /**
+     * Ctrl+滚轮以鼠标位置为中心缩放，拖动平移；普通滚轮交给滚动面板
+     */
+    private void installZoomAndPan() {
+        chessPanel.addMouseWheelListener(e -> {
+            if (e.isControlDown()) {
+                zoomAt(e.getPoint(), e.getWheelRotation() < 0);
+            } else {
+                scrollPane.dispatchEvent(SwingUtilities.convertMouseEvent(chessPanel, e, scrollPane));
+            }
+        });
+        MouseAdapter pan = new MouseAdapter() {
+            private Point anchor;
+
+            @Override
+            public void mousePressed(MouseEvent e) {
+                anchor = e.getLocationOnScreen();
+            }
+
+            @Override
+            public void mouseDragged(MouseEvent e) {
+                if (anchor == null) return;
+                Point now = e.getLocationOnScreen();
+                JViewport viewport = scrollPane.getViewport();
+                Point pos = viewport.getViewPosition();
+                pos.translate(anchor.x - now.x, anchor.y - now.y);
+                anchor = now;
+                viewport.setViewPosition(clampViewPosition(pos));
+            }
+
+            @Override
+            public void mouseReleased(MouseEvent e) {
+                anchor = null;
+            }
+        };
+        chessPanel.addMouseListener(pan);
+        chessPanel.addMouseMotionListener(pan);
+    }
+
+    /**
+     * 缩放一档，保持鼠标下的棋盘位置不动
+     */
+    private void zoomAt(Point mouse, boolean zoomIn) {
+        int oldSize = currentCellSize;
+        int newSize = zoomIn
+                ? Math.max(oldSize + 1, (int) Math.round(oldSize * ZOOM_STEP))
+                : Math.min(oldSize - 1, (int) Math.round(oldSize / ZOOM_STEP));
+        newSize = Math.max(1, Math.min(MAX_CELL_SIZE, newSize));
+        if (newSize == oldSize) {
+            return;
+        }
+        JViewport viewport = scrollPane.getViewport();
+        Point view = viewport.getViewPosition();
+        Point origin = boardOrigin();
+        double fx = (mouse.x - origin.x) / (double) oldSize;
+        double fy = (mouse.y - origin.y) / (double) oldSize;
+
+        currentCellSize = newSize;
+        chessPanel.revalidate();
+        scrollPane.validate();
+
+        Point newOrigin = boardOrigin();
+        Point pos = new Point((int) Math.round(newOrigin.x + fx * newSize) - (mouse.x - view.x),
+                (int) Math.round(newOrigin.y + fy * newSize) - (mouse.y - view.y));
+        viewport.setViewPosition(clampViewPosition(pos));
+        chessPanel.repaint();
+    }
+
+    private Point clampViewPosition(Point pos) {
+        Dimension extent = scrollPane.getViewport().getExtentSize();
+        int maxX = Math.max(0, chessPanel.getWidth() - extent.width);
+        int maxY = Math.max(0, chessPanel.getHeight() - extent.height);
+        return new Point(Math.max(0, Math.min(maxX, pos.x)), Math.max(0, Math.min(maxY, pos.y)));
+    }
+
+    /**
+     * 棋盘左上角（格子区域）在面板中的位置，自适应居中并至少保留最小边距
+     */
+    private Point boardOrigin() {
+        int boardWidth = cover.getCols() * currentCellSize;
+        int boardHeight = cover.getRows() * currentCellSize;
+        int offsetX = Math.max(BOARD_PADDING, (chessPanel.getWidth() - boardWidth) / 2);
+        int offsetY = Math.max(BOARD_PADDING, (chessPanel.getHeight() - boardHeight) / 2);
+        return new Point(offsetX, offsetY);
+    }
+
+    /**
+     * 绘制棋盘和马：只画与裁剪区域相交的格子。
+     * 小棋盘的静态部分贴缓存图，大棋盘逐格画可见部分，缩得很小时画一格一像素的缩略图
+     */
+    private void drawChessboard(Graphics g) {
+        Graphics2D g2d = (Graphics2D) g.create();
+        int rows = cover.getRows();
+        int cols = cover.getCols();
+        int[][] board = animator.getBoard();
+        if (board.length != rows || rows == 0 || board[0].length != cols) {
+            g2d.dispose();
+            return;
+        }
+        Point origin = boardOrigin();
+        int boardWidth = cols * currentCellSize;
+        int boardHeight = rows * currentCellSize;
+
+        // 与裁剪区域相交的格子范围
+        Rectangle clip = g2d.getClipBounds();
+        if (clip == null) {
+            clip = new Rectangle(0, 0, chessPanel.getWidth(), chessPanel.getHeight());
+        }
+        int firstRow = Math.max(0, (clip.y - origin.y) / currentCellSize);
+        int lastRow = Math.min(rows - 1, (clip.y + clip.height - origin.y) / currentCellSize);
+        int firstCol = Math.max(0, (clip.x - origin.x) / currentCellSize);
+        int lastCol = Math.min(cols - 1, (clip.x + clip.width - origin.x) / currentCellSize);
+
+        if (currentCellSize < OVERVIEW_CELL_SIZE) {
+            drawFrame(g2d, origin.x, origin.y, boardWidth, boardHeight);
+            if (firstRow <= lastRow && firstCol <= lastCol) {
+                g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                        RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+                g2d.drawImage(getOverviewImage(board),
+                        origin.x + firstCol * currentCellSize, origin.y + firstRow * currentCellSize,
+                        origin.x + (lastCol + 1) * currentCellSize, origin.y + (lastRow + 1) * currentCellSize,
+                        firstCol, firstRow, lastCol + 1, lastRow + 1, null);
+            }
+            g2d.dispose();
+            return;
+        }
+
+        long imagePixels = (long) (boardWidth + BOARD_PADDING * 2) * (boardHeight + BOARD_PADDING * 2);
+        if (imagePixels <= MAX_CACHED_BOARD_PIXELS) {
+            g2d.drawImage(getBoardImage(rows, cols), origin.x - BOARD_PADDING, origin.y - BOARD_PADDING, null);
+        } else {
+            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            drawFrame(g2d, origin.x, origin.y, boardWidth, boardHeight);
+            drawCells(g2d, origin.x, origin.y, firstRow, lastRow, firstCol, lastCol);
+            drawLabels(g2d, origin.x, origin.y, boardHeight, firstRow, lastRow, firstCol, lastCol);
+        }
+
+        for (int i = firstRow; i <= lastRow; i++) {
+            for (int j = firstCol; j <= lastCol; j++) {
+                if (board[i][j] == 1) {
+                    drawHorse(g2d, origin.x + j * currentCellSize, origin.y + i * currentCellSize);
+                }
+            }
+        }
+
+        g2d.dispose();
+    }
+
+    /**
+     * 只重绘 [minRow, maxRow] × [minCol, maxCol] 范围内的格子
+     */
+    private void repaintCells(int minRow, int minCol, int maxRow, int maxCol) {
+        Point origin = boardOrigin();
+        chessPanel.repaint(origin.x + minCol * currentCellSize, origin.y + minRow * currentCellSize,
+                (maxCol - minCol + 1) * currentCellSize + 1, (maxRow - minRow + 1) * currentCellSize + 1);
+    }
+
+    /**
+     * 演示动画每帧回调：合并后的变化区域只重绘一次
+     */
+    private void onDemoFrame(int minRow, int minCol, int maxRow, int maxCol) {
+        updateHorseCount();
+        progressBar.setValue((int) (demoProgress * progressBar.getMaximum()));
+        if (overviewImage != null && overviewSource == animator.getBoard()) {
+            paintOverview(animator.getBoard(), minRow, minCol, maxRow, maxCol);
+        }
+        repaintCells(minRow, minCol, maxRow, maxCol);
+    }
+
+    /**
+     * 静态棋盘（边框、格子、网格、行列标记）缓存图，大小或格子尺寸变化时重建
+     */
+    private BufferedImage getBoardImage(int rows, int cols) {
+        if (boardImage != null && boardImageRows == rows && boardImageCols == cols
+                && boardImageCellSize == currentCellSize && boardImageMask == cover.getMask()) {
+            return boardImage;
+        }
+        int boardHeight = rows * currentCellSize;
+        int boardWidth = cols * currentCellSize;
+        BufferedImage img = new BufferedImage(boardWidth + BOARD_PADDING * 2, boardHeight + BOARD_PADDING * 2,
+                BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2d = img.createGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+
+        drawFrame(g2d, BOARD_PADDING, BOARD_PADDING, boardWidth, boardHeight);
+        drawCells(g2d, BOARD_PADDING, BOARD_PADDING, 0, rows - 1, 0, cols - 1);
+        drawLabels(g2d, BOARD_PADDING, BOARD_PADDING, boardHeight, 0, rows - 1, 0, cols - 1);
+
+        g2d.dispose();
+        boardImage = img;
+        boardImageRows = rows;
+        boardImageCols = cols;
+        boardImageCellSize = currentCellSize;
+        boardImageMask = cover.getMask();
+        return img;
+    }
+
+    /**
+     * 阴影和木质边框
+     */
+    private void drawFrame(Graphics2D g2d, int offsetX, int offsetY, int boardWidth, int boardHeight) {
+        int frameWidth = boardWidth + 12;
+        int frameHeight = boardHeight + 12;
+        int frameX = offsetX - 6;
+        int frameY = offsetY - 6;
+        g2d.setColor(SHADOW_COLOR);
+        g2d.fillRoundRect(frameX + 4, frameY + 4, frameWidth, frameHeight, 12, 12);
+        g2d.setColor(FRAME_COLOR);
+        g2d.fillRoundRect(frameX, frameY, frameWidth, frameHeight, 12, 12);
+    }
+
+    /**
+     * 绘制指定范围的棋盘格子（黑白交替）和网格，不规则棋盘的洞画成边框色
+     */
+    private void drawCells(Graphics2D g2d, int offsetX, int offsetY,
+                           int firstRow, int lastRow, int firstCol, int lastCol) {
+        for (int i = firstRow; i <= lastRow; i++) {
+            for (int j = firstCol; j <= lastCol; j++) {
+                int x = offsetX + j * currentCellSize;
+                int y = offsetY + i * currentCellSize;
+                if (!cover.isActive(i, j)) {
+                    g2d.setColor(HOLE_COLOR);
+                    g2d.fillRect(x, y, currentCellSize, currentCellSize);
+                    continue;
+                }
+                g2d.setColor(((i + j) % 2 == 0) ? LIGHT_CELL : DARK_CELL);
+                g2d.fillRect(x, y, currentCellSize, currentCellSize);
+                g2d.setColor(GRID_COLOR);
+                g2d.drawRect(x, y, currentCellSize, currentCellSize);
+            }
+        }
+    }
+
+    /**
+     * 行列标记（r1-rn / c1-cn），格子太小时不画
+     */
+    private void drawLabels(Graphics2D g2d, int offsetX, int offsetY, int boardHeight,
+                            int firstRow, int lastRow, int firstCol, int lastCol) {
+        if (currentCellSize < DETAIL_CELL_SIZE) {
+            return;
+        }
+        g2d.setColor(LABEL_COLOR);
+        int fontSize = Math.max(8, currentCellSize / 6);
+        g2d.setFont(g2d.getFont().deriveFont(Font.PLAIN, fontSize));
+
+        // 列标记（c1, c2, c3, ...）
+        for (int j = firstCol; j <= lastCol; j++) {
+            String col = "c" + (j + 1);
+            int colX = offsetX + j * currentCellSize + currentCellSize / 2 - 8;
+            int colY = offsetY + boardHeight + 22;
+            g2d.drawString(col, colX, colY);
+        }
+
+        // 行标记（r1, r2, r3, ...）
+        for (int i = firstRow; i <= lastRow; i++) {
+            String row = "r" + (i + 1);
+            int rowX = offsetX - 22;
+            int rowY = offsetY + i * currentCellSize + currentCellSize / 2 + 4;
+            g2d.drawString(row, rowX, rowY);
+        }
+    }
+
+    /**
+     * 一格一像素的缩略图，快照棋盘换了才整张重建，演示中只改变化的像素
+     */
+    private BufferedImage getOverviewImage(int[][] board) {
+        int rows = board.length;
+        int cols = rows == 0 ? 0 : board[0].length;
+        if (overviewImage == null || overviewSource != board
+                || overviewImage.getWidth() != cols || overviewImage.getHeight() != rows) {
+            overviewImage = new BufferedImage(Math.max(1, cols), Math.max(1, rows), BufferedImage.TYPE_INT_RGB);
+            overviewSource = board;
+            paintOverview(board, 0, 0, rows - 1, cols - 1);
+        }
+        return overviewImage;
+    }
+
+    private void paintOverview(int[][] board, int minRow, int minCol, int maxRow, int maxCol) {
+        int[] pixels = ((DataBufferInt) overviewImage.getRaster().getDataBuffer()).getData();
+        int width = overviewImage.getWidth();
+        int light = LIGHT_CELL.getRGB(), dark = DARK_CELL.getRGB(), horse = HORSE_MARK_COLOR.getRGB();
+        int hole = HOLE_COLOR.getRGB();
+        BoardMask mask = cover.getMask();
+        for (int i = minRow; i <= maxRow; i++) {
+            int[] row = board[i];
+            int base = i * width;
+            for (int j = minCol; j <= maxCol; j++) {
+                pixels[base + j] = row[j] == 1 ? horse : mask != null && !mask.isActive(i, j) ? hole
+                        : (((i + j) & 1) == 0 ? light : dark);
+            }
+        }
+    }
+
+    /**
+     * 绘制马
+     */
+    private void drawHorse(Graphics g, int x, int y) {
+        BufferedImage sprite = currentCellSize >= DETAIL_CELL_SIZE ? getHorseSprite() : null;
+        if (sprite != null) {
+            int imgSize = sprite.getWidth();
+            int imgX = x + (currentCellSize - imgSize) / 2;
+            int imgY = y + (currentCellSize - imgSize) / 2;
+            g.drawImage(sprite, imgX, imgY, null);
+        } else {
+            Graphics2D g2d = (Graphics2D) g;
+            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g2d.setColor(HORSE_MARK_COLOR);
+            int inset = Math.min(7, currentCellSize / 4);
+            int diameter = Math.max(2, currentCellSize - inset * 2);
+            g2d.fillOval(x + inset, y + inset, diameter, diameter);
+        }
+    }
+
+    /**
+     * 按当前格子大小缩放好的马图，格子大小变化时才重新缩放
+     */
+    private BufferedImage getHorseSprite() {
+        if (horseImg == null) {
+            return null;
+        }
+        int imgSize = Math.max(10, currentCellSize - 10);
+        if (horseSprite == null || horseSprite.getWidth() != imgSize) {
+            horseSprite = resizeImage(horseImg, imgSize, imgSize);
+        }
+        return horseSprite;
+    }
+
+    /**
+     * 加载马的图片
+     */
+    private void loadHorseImage() {
+        try {
+            File imgFile = new File(IMAGE_PATH);
+            if (imgFile.exists()) {
+                horseImg = ImageIO.read(imgFile);
+            } else {
+                InputStream is = getClass().getResourceAsStream("/" + IMAGE_PATH);
+                if (is != null) {
+                    horseImg = ImageIO.read(is);
+                }
+            }
+            if (horseImg != null) {
+                horseImg = resizeImage(horseImg, CELL_SIZE - 10, CELL_SIZE - 10);
+            }
+        } catch (Exception e) {
+            // 加载失败，使用兜底圆形
+            horseImg = null;
+        }
+    }
+
+    /**
+     * 缩放图片
+     */
+    private BufferedImage resizeImage(BufferedImage img, int width, int height) {
+        Image scaled = img.getScaledInstance(width, height, Image.SCALE_SMOOTH);
+        BufferedImage resized = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2d = resized.createGraphics();
+        g2d.drawImage(scaled, 0, 0, null);
+        g2d.dispose();
+        return resized;
+    }
+
+    /**
+     * 生成极小覆盖：在后台线程上求解一个新棋盘，完成后在事件线程上整体换上；
+     * 新请求会取消并丢弃尚未完成的旧请求
+     */
+    private void regenerateCover() {
+        // 演示或局部搜索的线程还在改写当前 cover，不能换棋盘
+        if (isBusy()) return;
+        int rows, cols;
+        Piece piece;
+        try {
+            rows = Integer.parseInt(rowsField.getText().trim());
+            cols = Integer.parseInt(colsField.getText().trim());
+        } catch (NumberFormatException e) {
+            JOptionPane.showMessageDialog(this, "请输入有效的数字！");
+            return;
+        }
+        if (rows < 1 || cols < 1) {
+            JOptionPane.showMessageDialog(this, "行数和列数都不能小于1！");
+            return;
+        }
+        ChessboardCover.Strategy strategy = (ChessboardCover.Strategy) strategyBox.getSelectedItem();
+        ChessboardCover next;
+        try {
+            Object selected = pieceBox.getSelectedItem();
+            piece = selected instanceof Piece ? (Piece) selected : Piece.parse(String.valueOf(selected));
+            // 先建 1×1 的空棋盘带上配置，按实际大小（或载入的形状）分配和求解都在后台的 resetSize 里
+            next = ChessboardCover.unsolved(1, 1, cover.getEngine(), strategy, piece);
+        } catch (IllegalArgumentException e) {
+            JOptionPane.showMessageDialog(this, e.getMessage());
+            return;
+        }
+        next.setSolutionCache(solutionCache);
+        next.setProgressListener(new SolverMetrics.Listener() {
+            @Override
+            public void onProgress(SolverMetrics.Phase phase, double fraction) {
+                generationProgress = fraction;
+            }
+        });
+
+        if (generation != null) {
+            generation.cancel(true);
+        }
+        long id = ++generationId;
+        generationProgress = -1;
+        progressBar.setIndeterminate(true);
+        progressBar.setVisible(true);
+        cancelBtn.setVisible(true);
+        demoBtn.setEnabled(false);
+        improveBtn.setEnabled(false);
+        generationTimer.start();
+        revalidate();
+
+        BoardMask mask = boardMask;
+        generation = generator.submit(() -> {
+            try {
+                if (mask != null) {
+                    next.resetSize(mask);
+                } else {
+                    next.resetSize(rows, cols);
+                }
+                next.setProgressListener(null);
+                if (Thread.currentThread().isInterrupted()) return;
+                int[][] board = next.getBoard();
+                SwingUtilities.invokeLater(() -> publishCover(id, next, board));
+            } catch (RuntimeException e) {
+                SwingUtilities.invokeLater(() -> {
+                    if (id != generationId) return;
+                    endGeneration();
+                    JOptionPane.showMessageDialog(this, "生成失败：" + e.getMessage());
+                });
+            }
+        });
+    }
+
+    /**
+     * 从文本文件载入不规则棋盘形状并重新生成；行列数取形状的外框
+     */
+    private void loadMask() {
+        if (isBusy()) return;
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("载入棋盘形状");
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        try {
+            boardMask = BoardMask.read(chooser.getSelectedFile().toPath());
+        } catch (java.io.IOException e) {
+            JOptionPane.showMessageDialog(this, "载入失败：" + e.getMessage());
+            return;
+        }
+        rowsField.setText(String.valueOf(boardMask.getRows()));
+        colsField.setText(String.valueOf(boardMask.getCols()));
+        rowsField.setEnabled(false);
+        colsField.setEnabled(false);
+        rectBtn.setEnabled(true);
+        regenerateCover();
+    }
+
+    /**
+     * 回到按行列数生成的矩形棋盘
+     */
+    private void clearMask() {
+        if (isBusy()) return;
+        boardMask = null;
+        rowsField.setEnabled(true);
+        colsField.setEnabled(true);
+        rectBtn.setEnabled(false);
+        regenerateCover();
+    }
+
+    /**
+     * 在事件线程上换上生成结果；已被新请求取代或已取消时丢弃
+     */
+    private void publishCover(long id, ChessboardCover next, int[][] board) {
+        if (id != generationId) return;
+        endGeneration();
+        cover = next;
+        updateCellSize();
+        animator.show(board);
+        updateHorseCount();
+        chessPanel.revalidate();
+        chessPanel.repaint();
+    }
+
+    /**
+     * 取消进行中的生成，界面保持原来的覆盖
+     */
+    private void cancelGeneration() {
+        if (generation == null) return;
+        generation.cancel(true);
+        generationId++;
+        endGeneration();
+    }
+
+    private void endGeneration() {
+        generation = null;
+        generationTimer.stop();
+        progressBar.setIndeterminate(false);
+        progressBar.setVisible(false);
+        cancelBtn.setVisible(false);
+        if (!isBusy()) {
+            demoBtn.setEnabled(true);
+            improveBtn.setEnabled(true);
+        }
+        revalidate();
+    }
+
+    /**
+     * 演示回溯过程：求解线程独占 cover，界面只画动画引擎里的快照
+     */
+    private void demoBacktracking() {
+        if (isBusy()) {
+            JOptionPane.showMessageDialog(this, "演示已在进行中，请先停止当前演示！");
+            return;
+        }
+
+        setBusy(true);
+
+        // 线程只改写开始时的棋盘
+        ChessboardCover target = cover;
+        int rows = target.getRows();
+        int cols = target.getCols();
+        int[][] board = target.getBoard();
+
+        target.clearBoard();
+        animator.begin(target.getBoard());
+        demoProgress = 0;
+        progressBar.setValue(0);
+        progressBar.setVisible(true);
+        updateHorseCount();
+        chessPanel.repaint();
+
+        demoThread = new Thread(() -> {
+            boolean completed = false;
+            try {
+                for (int i = 0; i < rows; i++) {
+                    for (int j = 0; j < cols; j++) {
+                        if (Thread.currentThread().isInterrupted()) return;
+                        if (!target.isActive(i, j)) continue;
+                        target.placeHorse(i, j);
+                        animator.publish(i, j, true);
+                    }
+                    // 放马占前一半进度，回溯占后一半
+                    demoProgress = (i + 1) / (2.0 * rows);
+                }
+                SwingUtilities.invokeLater(() ->
+                        JOptionPane.showMessageDialog(this, "开始回溯：尝试移除冗余马")
+                );
+
+                demoBacktrackHelper(target, 0, rows, cols, board);
+                completed = !Thread.currentThread().isInterrupted();
+            } finally {
+                boolean showDone = completed;
+                animator.finish(() -> {
+                    updateHorseCount();
+                    chessPanel.repaint();
+                    if (showDone) {
+                        JOptionPane.showMessageDialog(this, "演示完成！已生成极小满覆盖");
+                    }
+                    progressBar.setVisible(false);
+                    setBusy(false);
+                    demoThread = null;
+                });
+            }
+        }, "cover-demo");
+        demoThread.start();
+    }
+
+    /**
+     * 演示回溯的辅助方法（迭代执行，大棋盘不会栈溢出）
+     */
+    private void demoBacktrackHelper(ChessboardCover target, int idx, int rows, int cols, int[][] board) {
+        RemovalSweep sweep = new RemovalSweep(target, new ChessboardCover.DemoCallback() {
+            @Override
+            public void onStateChanged() {
+                animator.pace();
+            }
+
+            @Override
+            public void onCellChanged(int i, int j) {
+                animator.publish(i, j, target.hasHorse(i, j));
+            }
+
+            @Override
+            public void onProgress(double fraction) {
+                demoProgress = 0.5 + fraction / 2;
+            }
+        });
+        sweep.resumeFrom(idx);
+        sweep.run();
+    }
+
+    /**
+     * 局部搜索改进当前覆盖：后台线程搜索，每找到更好的覆盖就换上快照显示
+     */
+    private void improveCover() {
+        if (isBusy()) {
+            JOptionPane.showMessageDialog(this, "演示已在进行中，请先停止当前演示！");
+            return;
+        }
+        if (cover.getMask() != null) {
+            JOptionPane.showMessageDialog(this, "不规则棋盘暂不支持局部搜索");
+            return;
+        }
+        setBusy(true);
+        // 搜索结束时会改写 cover 的棋盘，界面先换成副本；线程只改写开始时的棋盘
+        ChessboardCover target = cover;
+        animator.show(copyBoard(target.getBoard()));
+        progressBar.setIndeterminate(true);
+        progressBar.setVisible(true);
+
+        long deadline = System.nanoTime() + IMPROVE_SECONDS * 1_000_000_000L;
+        demoThread = new Thread(() -> {
+            try {
+                target.improve(deadline, (bb, knights) -> {
+                    int[][] snapshot = bb.toIntBoard();
+                    SwingUtilities.invokeLater(() -> {
+                        animator.show(snapshot);
+                        updateHorseCount();
+                        chessPanel.repaint();
+                    });
+                });
+            } finally {
+                SwingUtilities.invokeLater(() -> {
+                    animator.show(target.getBoard());
+                    updateHorseCount();
+                    chessPanel.repaint();
+                    progressBar.setIndeterminate(false);
+                    progressBar.setVisible(false);
+                    setBusy(false);
+                    demoThread = null;
+                });
+            }
+        }, "cover-improve");
+        demoThread.start();
+    }
+
+    private static int[][] copyBoard(int[][] board) {
+        int[][] copy = new int[board.length][];
+        for (int i = 0; i < board.length; i++) {
+            copy[i] = board[i].clone();
+        }
+        return copy;
+    }
+
+    /**
+     * 后台任务进行中时只留停止按钮可用
+     */
+    private void setBusy(boolean busy) {
+        genBtn.setEnabled(!busy);
+        demoBtn.setEnabled(!busy);
+        improveBtn.setEnabled(!busy);
+        maskBtn.setEnabled(!busy);
+        rectBtn.setEnabled(!busy && boardMask != null);
+        stopBtn.setEnabled(busy);
+    }
+
+    /**
+     * 演示或局部搜索的线程是否还在运行
+     */
+    private boolean isBusy() {
+        return demoThread != null || animator.isRunning();
+    }
+
+    /**
+     * 停止演示或局部搜索
+     */
+    private void stopDemo() {
+        if (demoThread != null && demoThread.isAlive()) {
+            // 按钮在后台线程收尾后恢复
+            demoThread.interrupt();
+            stopBtn.setEnabled(false);
+            JOptionPane.showMessageDialog(this, "已停止");
+        }
+    }
+
+    // 导出功能已移至 SolutionExporter 类
+}
@@ -0,0 +1,583 @@
+package chess;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 枚举并计数小棋盘上的全部极小覆盖（或全部最小覆盖），不只是 ChessboardCover 给出的一个
+ *
+ * 分支方式与 ExactCoverSolver 相同：取候选马最少的未覆盖格，依次试放能覆盖它的各格，试过的兄弟分支不再选，
+ * 这样每个极小覆盖恰好出现在一个叶子上。已选的马一旦没有独占格（只被它覆盖的格）就不可能再极小，整枝剪掉。
+ * 对称性：方形棋盘用 D4（8 种变换），矩形用 D2（4 种），只输出字典序最大的代表
+ * （按格号从小到大比较，有马为大），部分赋值已能判定不是代表时提前剪枝；总数按每个代表的轨道大小累计。
+ * 搜索树的前几层拆成 ForkJoin 任务并行，解逐个交给 Sink，不在内存中保留。
+ */
+public class CoverEnumerator {
+    // 支持的最大格子数（与精确求解相同，约 12×12）
+    public static final int MAX_CELLS = ChessboardCover.EXACT_MAX_CELLS;
+    // 搜索树前几层拆成独立任务
+    private static final int SPLIT_DEPTH = 3;
+
+    private final int rows;
+    private final int cols;
+    private final int cells;
+    private final int words;
+    private final Piece piece;
+    private final Mode mode;
+    private final long[][] closed;   // closed[c]：放在 c 的马能覆盖的格子（含自身）
+    private final int[][] neighbours;  // 同一闭邻域的格号列表
+    private final int[] boundOrder;  // 求下界时按邻域从小到大访问格子
+    private final int maxClosed;
+    private int[][] inverses;        // 非恒等对称变换的逆置换：inverses[g][c] 为变换后落在 c 的原格
+    private int groupSize;           // 对称群大小（含恒等）
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+    private volatile boolean stop;
+
+    private Sink sink;
+    private final Object sinkLock = new Object();
+    private int target;              // MINIMUM 模式的马数
+    private final LongAdder canonical = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final LongAdder nodes = new LongAdder();
+
+    /**
+     * 枚举对象
+     */
+    public enum Mode {
+        MINIMAL("极小覆盖"),   // 去掉任何一匹马都不再满覆盖
+        MINIMUM("最小覆盖");   // 马数等于最小值
+
+        private final String label;
+
+        Mode(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() { return label; }
+
+        @Override
+        public String toString() { return label; }
+    }
+
+    /**
+     * 接收代表解；orbit 为它在对称变换下的等价解个数（不用对称时为 1）。
+     * 调用已串行化，实现不必线程安全；cover 是新建的，可以留用
+     */
+    public interface Sink {
+        void accept(BitboardCover cover, int orbit) throws IOException;
+    }
+
+    /**
+     * 枚举结果
+     */
+    public static final class Result {
+        private final long canonical;
+        private final long total;
+        private final int minimum;
+        private final long nodes;
+        private final boolean complete;
+
+        Result(long canonical, long total, int minimum, long nodes, boolean complete) {
+            this.canonical = canonical;
+            this.total = total;
+            this.minimum = minimum;
+            this.nodes = nodes;
+            this.complete = complete;
+        }
+
+        /** 对称意义下互不等价的解数 */
+        public long getCanonical() { return canonical; }
+        /** 全部解数 */
+        public long getTotal() { return total; }
+        /** 最小马数，MINIMAL 模式下为 -1 */
+        public int getMinimum() { return minimum; }
+        public long getNodes() { return nodes; }
+        /** 被取消时为 false，计数只是已找到的部分 */
+        public boolean isComplete() { return complete; }
+    }
+
+    public CoverEnumerator(int rows, int cols, Mode mode) {
+        this(rows, cols, mode, Piece.KNIGHT);
+    }
+
+    public CoverEnumerator(int rows, int cols, Mode mode, Piece piece) {
+        if ((long) rows * cols > MAX_CELLS) {
+            throw new IllegalArgumentException("枚举仅支持 " + MAX_CELLS + " 格以内的棋盘");
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.cells = rows * cols;
+        this.words = (cells + 63) >>> 6;
+        this.piece = piece;
+        this.mode = mode;
+        MoveTable t = MoveTable.compile(rows, cols, piece);
+        this.maxClosed = t.maxDegree + 1;
+        this.closed = new long[cells][words];
+        this.neighbours = new int[cells][];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                int c = i * cols + j;
+                int p = t.rowClass[i] + t.colClass[j];
+                int[] nb = new int[t.start[p + 1] - t.start[p] + 1];
+                nb[0] = c;
+                setBit(closed[c], c);
+                for (int k = t.start[p]; k < t.start[p + 1]; k++) {
+                    nb[k - t.start[p] + 1] = c + t.delta[k];
+                    setBit(closed[c], c + t.delta[k]);
+                }
+                neighbours[c] = nb;
+            }
+        }
+        Integer[] order = new Integer[cells];
+        for (int c = 0; c < cells; c++) order[c] = c;
+        java.util.Arrays.sort(order, (a, b) -> Integer.compare(neighbours[a].length, neighbours[b].length));
+        this.boundOrder = new int[cells];
+        for (int c = 0; c < cells; c++) boundOrder[c] = order[c];
+        setSymmetry(true);
+    }
+
+    /**
+     * 是否按对称性只输出代表解（默认是）
+     */
+    public void setSymmetry(boolean enabled) {
+        List<int[]> perms = new ArrayList<>();
+        if (enabled) {
+            // 变换把 (i, j) 映到 (x, y)；方形棋盘另加转置类的 4 种
+            int variants = rows == cols ? 8 : 4;
+            for (int g = 1; g < variants; g++) {
+                int[] inv = new int[cells];
+                for (int i = 0; i < rows; i++) {
+                    for (int j = 0; j < cols; j++) {
+                        int a = (g & 1) != 0 ? rows - 1 - i : i;
+                        int b = (g & 2) != 0 ? cols - 1 - j : j;
+                        int x = (g & 4) != 0 ? b : a;
+                        int y = (g & 4) != 0 ? a : b;
+                        inv[x * cols + y] = i * cols + j;
+                    }
+                }
+                perms.add(inv);
+            }
+        }
+        this.inverses = perms.toArray(new int[0][]);
+        this.groupSize = inverses.length + 1;
+    }
+
+    public void setPool(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * 请求尽快结束（可跨线程调用）
+     */
+    public void cancel() {
+        stop = true;
+    }
+
+    /**
+     * 枚举全部解，逐个交给 sink（可为 null，只计数）
+     */
+    public Result enumerate(Sink sink) throws IOException {
+        this.sink = sink;
+        this.stop = false;
+        canonical.reset();
+        total.reset();
+        nodes.reset();
+        int minimum = -1;
+        if (mode == Mode.MINIMUM) {
+            BitboardCover start = new ChessboardCover(rows, cols, ChessboardCover.Engine.BITBOARD,
+                    ChessboardCover.Strategy.MINIMAL, null, piece).toBitboard();
+            minimum = new ExactCoverSolver(rows, cols, piece).solve(start).countHorses();
+            target = minimum;
+        } else {
+            target = cells;
+        }
+        try {
+            pool.invoke(new SearchTask(new Searcher().state()));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return new Result(canonical.sum(), total.sum(), minimum, nodes.sum(), !stop);
+    }
+
+    /**
+     * 把每个代表解写成一行："轨道大小: 行,列 行,列 ..."
+     */
+    public static Sink lines(Writer out) {
+        return (cover, orbit) -> {
+            StringBuilder sb = new StringBuilder();
+            sb.append(orbit).append(':');
+            for (int i = 0; i < cover.getRows(); i++) {
+                for (int j = 0; j < cover.getCols(); j++) {
+                    if (cover.get(i, j)) sb.append(' ').append(i).append(',').append(j);
+                }
+            }
+            out.write(sb.append('\n').toString());
+        };
+    }
+
+    /**
+     * 每个代表解存成目录下的一个二进制方案文件（SolutionFile 格式），按找到的顺序编号
+     */
+    public static Sink archive(Path dir, ChessboardCover.Strategy strategy) {
+        long[] next = {0};
+        return (cover, orbit) -> SolutionFile.write(
+                dir.resolve(String.format("%08d.ksf", ++next[0])), cover, strategy);
+    }
+
+    /**
+     * 找到一个叶子（已满覆盖）：是代表解就交给 sink
+     */
+    private void emit(long[] chosen) {
+        int fixed = 1;
+        for (int[] inv : inverses) {
+            int cmp = compareImage(chosen, null, inv, true);
+            if (cmp < 0) return;
+            if (cmp == 0) fixed++;
+        }
+        int orbit = groupSize / fixed;
+        canonical.increment();
+        total.add(orbit);
+        if (sink == null) return;
+        BitboardCover bb = new BitboardCover(rows, cols, piece);
+        for (int c = 0; c < cells; c++) {
+            if (testBit(chosen, c)) bb.set(c / cols, c % cols);
+        }
+        synchronized (sinkLock) {
+            try {
+                sink.accept(bb, orbit);
+            } catch (IOException e) {
+                stop = true;
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * 比较当前集合 S 与其像 g(S)：S 大返回 1，小返回 -1，相等返回 0，尚不能判定返回 2。
+     * 未定的格（既未选也未排除）在 leaf 为 true 时按无马处理
+     */
+    private int compareImage(long[] chosen, long[] forbidden, int[] inv, boolean leaf) {
+        for (int c = 0; c < cells; c++) {
+            int a = state(chosen, forbidden, c, leaf);
+            int b = state(chosen, forbidden, inv[c], leaf);
+            if (a == 2 || b == 2) return 2;
+            if (a != b) return a > b ? 1 : -1;
+        }
+        return 0;
+    }
+
+    /**
+     * 1=有马，0=确定无马，2=未定
+     */
+    private static int state(long[] chosen, long[] forbidden, int c, boolean leaf) {
+        if (testBit(chosen, c)) return 1;
+        return leaf || testBit(forbidden, c) ? 0 : 2;
+    }
+
+    /**
+     * 一个搜索分支的起点（拆分任务时复制）
+     */
+    private static final class State {
+        final int[] count;
+        final long[] chosen;
+        final long[] forbidden;
+        final int depth;
+        final int uncovered;
+
+        State(int[] count, long[] chosen, long[] forbidden, int depth, int uncovered) {
+            this.count = count;
+            this.chosen = chosen;
+            this.forbidden = forbidden;
+            this.depth = depth;
+            this.uncovered = uncovered;
+        }
+    }
+
+    private final class SearchTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final State state;
+
+        SearchTask(State state) {
+            this.state = state;
+        }
+
+        @Override
+        protected void compute() {
+            Searcher s = new Searcher(state);
+            s.search(state.depth);
+            nodes.add(s.nodeCount);
+        }
+    }
+
+    /**
+     * 单个任务内的深度优先搜索，状态增量维护、回溯时撤销
+     */
+    private final class Searcher {
+        private final int[] count;      // 每格被多少匹已选的马覆盖
+        private final long[] chosen;
+        private final long[] forbidden;
+        private int uncovered;
+        private final int[][] optionStack = new int[cells + 1][maxClosed];
+        private final long[] used = new long[words];
+        private long nodeCount;
+
+        Searcher() {
+            this.count = new int[cells];
+            this.chosen = new long[words];
+            this.forbidden = new long[words];
+            this.uncovered = cells;
+        }
+
+        Searcher(State s) {
+            this.count = s.count.clone();
+            this.chosen = s.chosen.clone();
+            this.forbidden = s.forbidden.clone();
+            this.uncovered = s.uncovered;
+        }
+
+        State state() {
+            return state(0);
+        }
+
+        State state(int depth) {
+            return new State(count.clone(), chosen.clone(), forbidden.clone(), depth, uncovered);
+        }
+
+        /**
+         * depth 同时也是已选的马数
+         */
+        void search(int depth) {
+            nodeCount++;
+            if (stop) return;
+            if (uncovered == 0) {
+                emit(chosen);
+                return;
+            }
+            int branch = -1, best = Integer.MAX_VALUE;
+            for (int c = 0; c < cells && best > 1; c++) {
+                if (count[c] != 0) continue;
+                int options = countAndNot(closed[c], forbidden);
+                if (options < best) {
+                    best = options;
+                    branch = c;
+                }
+            }
+            if (best == 0 || depth + 1 > target) return;
+            if (mode == Mode.MINIMUM && depth + lowerBound() > target) return;
+
+            int[] options = optionStack[depth];
+            int n = 0;
+            for (int v : neighbours[branch]) {
+                if (!testBit(forbidden, v)) options[n++] = v;
+            }
+            java.util.Arrays.sort(options, 0, n);
+            List<SearchTask> tasks = depth < SPLIT_DEPTH ? new ArrayList<>() : null;
+            for (int k = 0; k < n && !stop; k++) {
+                int v = options[k];
+                place(v);
+                if (stillMinimal(v) && mayBeCanonical()) {
+                    if (tasks != null) {
+                        tasks.add(new SearchTask(state(depth + 1)));
+                    } else {
+                        search(depth + 1);
+                    }
+                }
+                unplace(v);
+                // 之后的兄弟分支不再选 v
+                setBit(forbidden, v);
+            }
+            for (int k = 0; k < n; k++) {
+                forbidden[options[k] >>> 6] &= ~(1L << options[k]);
+            }
+            if (tasks != null) {
+                ForkJoinTask.invokeAll(tasks);
+            }
+        }
+
+        private void place(int v) {
+            setBit(chosen, v);
+            for (int x : neighbours[v]) {
+                if (count[x]++ == 0) uncovered--;
+            }
+        }
+
+        private void unplace(int v) {
+            chosen[v >>> 6] &= ~(1L << v);
+            for (int x : neighbours[v]) {
+                if (--count[x] == 0) uncovered++;
+            }
+        }
+
+        /**
+         * 放下 v 后，原先独占某格的马是否仍各有独占格（覆盖只增不减，失去后无法恢复）
+         */
+        private boolean stillMinimal(int v) {
+            for (int x : neighbours[v]) {
+                if (count[x] != 2) continue;
+                for (int u : neighbours[x]) {
+                    if (u != v && testBit(chosen, u) && !hasPrivate(u)) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        private boolean hasPrivate(int u) {
+            for (int x : neighbours[u]) {
+                if (count[x] == 1) return true;
+            }
+            return false;
+        }
+
+        /**
+         * 按已选/已排除的格判断是否仍可能是代表解
+         */
+        private boolean mayBeCanonical() {
+            for (int[] inv : inverses) {
+                if (compareImage(chosen, forbidden, inv, false) < 0) return false;
+            }
+            return true;
+        }
+
+        /**
+         * 下界：贪心挑出候选马集合两两不相交的未覆盖格，每格至少需要一匹不同的马
+         */
+        private int lowerBound() {
+            java.util.Arrays.fill(used, 0L);
+            int bound = 0;
+            for (int c : boundOrder) {
+                if (count[c] != 0) continue;
+                long[] nb = closed[c];
+                boolean disjoint = true;
+                for (int w = 0; w < words; w++) {
+                    if ((nb[w] & ~forbidden[w] & used[w]) != 0) {
+                        disjoint = false;
+                        break;
+                    }
+                }
+                if (disjoint) {
+                    bound++;
+                    for (int w = 0; w < words; w++) {
+                        used[w] |= nb[w] & ~forbidden[w];
+                    }
+                }
+            }
+            return bound;
+        }
+    }
+
+    private int countAndNot(long[] a, long[] b) {
+        int n = 0;
+        for (int w = 0; w < words; w++) {
+            n += Long.bitCount(a[w] & ~b[w]);
+        }
+        return n;
+    }
+
+    private static void setBit(long[] set, int c) {
+        set[c >>> 6] |= 1L << c;
+    }
+
+    private static boolean testBit(long[] set, int c) {
+        return (set[c >>> 6] & (1L << c)) != 0;
+    }
+
+    /**
+     * 命令行入口：--enumerate --rows R [--cols C] [--mode MINIMAL|MINIMUM] [--piece knight|king|...]
+     * [--threads N] [--out 路径|-] [--archive 目录] [--no-symmetry]
+     */
+    public static void main(String[] args) {
+        int rows = 0;
+        int cols = 0;
+        Mode mode = Mode.MINIMUM;
+        Piece piece = Piece.KNIGHT;
+        int threads = Runtime.getRuntime().availableProcessors();
+        String outPath = null;
+        String archiveDir = null;
+        boolean symmetry = true;
+        try {
+            for (int k = 0; k < args.length; k++) {
+                switch (args[k]) {
+                    case "--enumerate": break;
+                    case "--rows": rows = Integer.parseInt(args[++k]); break;
+                    case "--cols": cols = Integer.parseInt(args[++k]); break;
+                    case "--mode": mode = Mode.valueOf(args[++k]); break;
+                    case "--piece": piece = Piece.parse(args[++k]); break;
+                    case "--threads": threads = Integer.parseInt(args[++k]); break;
+                    case "--out": outPath = args[++k]; break;
+                    case "--archive": archiveDir = args[++k]; break;
+                    case "--no-symmetry": symmetry = false; break;
+                    default: throw new IllegalArgumentException("未知参数：" + args[k]);
+                }
+            }
+            if (rows < 1) throw new IllegalArgumentException("缺少 --rows");
+            if (cols < 1) cols = rows;
+            if (threads < 1) throw new IllegalArgumentException("--threads 至少为 1");
+            if (outPath != null && archiveDir != null) {
+                throw new IllegalArgumentException("--out 与 --archive 只能选一个");
+            }
+            if ((long) rows * cols > MAX_CELLS) {
+                throw new IllegalArgumentException("枚举仅支持 " + MAX_CELLS + " 格以内的棋盘");
+            }
+        } catch (RuntimeException e) {
+            System.err.println("参数错误：" + e.getMessage());
+            System.err.println("用法：--enumerate --rows R [--cols C] [--mode MINIMAL|MINIMUM] [--piece knight|king|camel|zebra|a,b] "
+                    + "[--threads N] [--out 路径|-] [--archive 目录] [--no-symmetry]");
+            System.exit(2);
+            return;
+        }
+
+        CoverEnumerator enumerator = new CoverEnumerator(rows, cols, mode, piece);
+        enumerator.setSymmetry(symmetry);
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        enumerator.setPool(pool);
+        long start = System.nanoTime();
+        Writer out = null;
+        try {
+            Sink sink = null;
+            if (outPath != null) {
+                out = "-".equals(outPath)
+                        ? new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8))
+                        : Files.newBufferedWriter(Paths.get(outPath), StandardCharsets.UTF_8);
+                sink = lines(out);
+            } else if (archiveDir != null) {
+                sink = archive(Paths.get(archiveDir), mode == Mode.MINIMUM
+                        ? ChessboardCover.Strategy.EXACT : ChessboardCover.Strategy.MINIMAL);
+            }
+            Result r = enumerator.enumerate(sink);
+            if (out != null) out.flush();
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            System.err.println(rows + "×" + cols + " " + piece.getLabel() + " " + mode.getLabel()
+                    + (r.getMinimum() >= 0 ? "（" + r.getMinimum() + " 匹）" : "")
+                    + "：代表解 " + r.getCanonical() + " 个，共 " + r.getTotal() + " 个；搜索结点 " + r.getNodes()
+                    + "，耗时 " + millis + " 毫秒");
+        } catch (IOException e) {
+            System.err.println("写出失败：" + e.getMessage());
+            System.exit(1);
+        } finally {
+            pool.shutdown();
+            if (out != null && !"-".equals(outPath)) {
+                try {
+                    out.close();
+                } catch (IOException e) {
+                    // 已 flush，关闭失败不影响结果
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,448 @@
+package chess;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 本机 HTTP 求解服务（JDK 自带的 com.sun.net.httpserver）
+ *
+ * GET  /solve?rows=&cols=[&strategy=&piece=]    求覆盖，返回马数等 JSON
+ * GET  /report?rows=&cols=[&...&format=report|matrix|ksf]  求覆盖并返回导出的报告、紧凑矩阵或二进制方案
+ * POST /validate[?piece=&limit=]                 请求体为 0/1 矩阵，返回校验结果 JSON（见 CoverValidator）
+ * GET  /stats                                    请求、求解、合并、拒绝计数
+ *
+ * 每个请求一个处理线程：JDK 21 起用虚拟线程，更早的 JDK 退回守护线程池。
+ * 求解与校验先过准入信号量，同时最多 maxSolves 个，排队超过 queueMillis 返回 503；
+ * 同一（行, 列, 策略, 棋子）的并发请求共用一次正在进行的求解
+ */
+public class CoverServer {
+    private final HttpServer server;
+    private final ExecutorService handlers;
+    private final Semaphore admission;
+    private final int maxSolves;
+    private final long queueMillis;
+    private final long maxCells;
+    private SolutionCache cache;
+    private final ConcurrentHashMap<String, CompletableFuture<Solved>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder solves = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder validations = new LongAdder();
+
+    public static final int DEFAULT_PORT = 8080;
+    // 单个请求允许的最大格子数（求解或校验）
+    public static final long DEFAULT_MAX_CELLS = 16L << 20;
+    private static final long DEFAULT_QUEUE_MILLIS = 2000;
+    private static final int DEFAULT_LIMIT = 1000;
+
+    /**
+     * 一次求解的结果，多个请求共享，只读
+     */
+    private static final class Solved {
+        final BitboardCover bits;
+        final ChessboardCover.Strategy strategy;
+        final long millis;
+
+        Solved(BitboardCover bits, ChessboardCover.Strategy strategy, long millis) {
+            this.bits = bits;
+            this.strategy = strategy;
+            this.millis = millis;
+        }
+    }
+
+    public CoverServer(int port) throws IOException {
+        this(port, Runtime.getRuntime().availableProcessors(), DEFAULT_QUEUE_MILLIS, DEFAULT_MAX_CELLS);
+    }
+
+    /**
+     * @param port        监听端口，0 为任选空闲端口
+     * @param maxSolves   同时进行的求解与校验上限
+     * @param queueMillis 等待准入的最长时间，超时返回 503
+     * @param maxCells    单个请求的格子数上限
+     */
+    public CoverServer(int port, int maxSolves, long queueMillis, long maxCells) throws IOException {
+        if (maxSolves < 1) throw new IllegalArgumentException("并发求解数至少为 1");
+        this.maxSolves = maxSolves;
+        this.admission = new Semaphore(maxSolves, true);
+        this.queueMillis = queueMillis;
+        this.maxCells = maxCells;
+        this.server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        this.handlers = handlerExecutor();
+        server.setExecutor(handlers);
+        server.createContext("/solve", exchange -> handle(exchange, "GET", this::solve));
+        server.createContext("/report", exchange -> handle(exchange, "GET", this::report));
+        server.createContext("/validate", exchange -> handle(exchange, "POST", this::validate));
+        server.createContext("/stats", exchange -> handle(exchange, "GET", this::stats));
+    }
+
+    /**
+     * 设置方案缓存（null 不用），开始服务前调用
+     */
+    public void setSolutionCache(SolutionCache cache) {
+        this.cache = cache;
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * 停止监听，最多等 delaySeconds 秒让进行中的请求写完
+     */
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        handlers.shutdownNow();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * JDK 21 起每个请求一个虚拟线程（项目按 17 编译，反射取工厂方法），否则用缓存的守护线程池
+     */
+    private static ExecutorService handlerExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(r -> {
+                Thread t = new Thread(r, "cover-http");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    private interface Handler {
+        void handle(HttpExchange exchange, Map<String, String> query) throws IOException;
+    }
+
+    /**
+     * 统一检查方法、解析参数，并把异常映射为状态码
+     */
+    private void handle(HttpExchange exchange, String method, Handler handler) throws IOException {
+        requests.increment();
+        try {
+            if (!method.equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().set("Allow", method);
+                sendText(exchange, 405, "只支持 " + method);
+                return;
+            }
+            handler.handle(exchange, parseQuery(exchange.getRequestURI()));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            exchange.getResponseHeaders().set("Retry-After", "1");
+            sendText(exchange, 503, e.getMessage());
+        } catch (IllegalArgumentException e) {
+            sendText(exchange, 400, e.getMessage());
+        } catch (IOException e) {
+            // 请求体读不出或客户端已断开，尽量回一个 400
+            try {
+                sendText(exchange, 400, e.getMessage());
+            } catch (IOException | RuntimeException ignored) {
+                // 连接已不可用
+            }
+        } catch (RuntimeException e) {
+            sendText(exchange, 500, String.valueOf(e));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void solve(HttpExchange exchange, Map<String, String> query) throws IOException {
+        boolean[] shared = new boolean[1];
+        Solved solved = solve(query, shared);
+        BitboardCover bits = solved.bits;
+        sendJson(exchange, 200, "{\"rows\":" + bits.getRows() + ",\"cols\":" + bits.getCols()
+                + ",\"strategy\":\"" + solved.strategy.name() + "\",\"piece\":\"" + bits.getPiece().getSpec()
+                + "\",\"knights\":" + bits.countHorses() + ",\"millis\":" + solved.millis
+                + ",\"shared\":" + shared[0] + "}");
+    }
+
+    private void report(HttpExchange exchange, Map<String, String> query) throws IOException {
+        String format = query.getOrDefault("format", "report");
+        if (!format.equals("report") && !format.equals("matrix") && !format.equals("ksf")) {
+            throw new IllegalArgumentException("format 只支持 report、matrix 或 ksf");
+        }
+        Solved solved = solve(query, new boolean[1]);
+        BitboardCover bits = solved.bits;
+        if (format.equals("ksf")) {
+            // 方案文件头带整盘校验和，先写临时文件再发出
+            Path tmp = Files.createTempFile("cover", ".ksf");
+            try {
+                SolutionFile.write(tmp, bits, solved.strategy);
+                exchange.getResponseHeaders().set("Content-Type", "application/octet-stream");
+                exchange.sendResponseHeaders(200, Files.size(tmp));
+                try (OutputStream out = exchange.getResponseBody()) {
+                    Files.copy(tmp, out);
+                }
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+            return;
+        }
+        SolutionExporter exporter = new SolutionExporter(bits.getRows(), bits.getCols(), bits.toIntBoard(),
+                solved.strategy);
+        exporter.setPiece(bits.getPiece());
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(200, 0);
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(exchange.getResponseBody(),
+                StandardCharsets.UTF_8), 1 << 16)) {
+            if (format.equals("matrix")) {
+                exporter.writeMatrix(out);
+            } else {
+                exporter.writeReport(out);
+            }
+        }
+    }
+
+    private void validate(HttpExchange exchange, Map<String, String> query) throws IOException {
+        Piece piece = Piece.parse(query.getOrDefault("piece", "knight"));
+        long limit = parseLong(query, "limit", DEFAULT_LIMIT);
+        // 请求体按 0/1 矩阵计，每格至少 1 字节
+        byte[] body;
+        try (InputStream in = exchange.getRequestBody()) {
+            body = in.readNBytes((int) Math.min(Integer.MAX_VALUE - 8, 2 * maxCells + 1));
+            if (in.read() >= 0) {
+                sendText(exchange, 413, "请求体过大");
+                return;
+            }
+        }
+        BitboardCover cover = CoverValidator.readMatrix(
+                new InputStreamReader(new ByteArrayInputStream(body), StandardCharsets.UTF_8), piece);
+        checkCells(cover.getRows(), cover.getCols());
+        admit();
+        CoverValidator.Report report;
+        try {
+            report = CoverValidator.validate(cover);
+        } finally {
+            admission.release();
+        }
+        validations.increment();
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\"rows\":").append(cover.getRows()).append(",\"cols\":").append(cover.getCols())
+                .append(",\"piece\":\"").append(piece.getSpec()).append("\",\"knights\":").append(report.getKnights())
+                .append(",\"fullCover\":").append(report.isFullCover()).append(",\"minimal\":").append(report.isMinimal())
+                .append(",\"uncoveredCount\":").append(report.getUncoveredCount())
+                .append(",\"redundantCount\":").append(report.getRedundantCount())
+                .append(",\"uncovered\":");
+        appendCells(sb, report.getUncovered(), limit);
+        sb.append(",\"redundant\":");
+        appendCells(sb, report.getRedundant(), limit);
+        sb.append('}');
+        sendJson(exchange, 200, sb.toString());
+    }
+
+    private void stats(HttpExchange exchange, Map<String, String> query) throws IOException {
+        sendJson(exchange, 200, "{\"requests\":" + requests.sum() + ",\"solves\":" + solves.sum()
+                + ",\"coalesced\":" + coalesced.sum() + ",\"rejected\":" + rejected.sum()
+                + ",\"validations\":" + validations.sum() + ",\"inFlight\":" + inFlight.size()
+                + ",\"running\":" + (maxSolves - admission.availablePermits()) + ",\"maxSolves\":" + maxSolves + "}");
+    }
+
+    /**
+     * 取得（行, 列, 策略, 棋子）的覆盖：已有同样的求解在进行就等它，shared[0] 标记是否共用了别人的结果
+     */
+    private Solved solve(Map<String, String> query, boolean[] shared) {
+        int rows = (int) parseLong(query, "rows", -1);
+        int cols = (int) parseLong(query, "cols", rows);
+        if (rows < 1 || cols < 1) throw new IllegalArgumentException("rows 和 cols 须为正整数");
+        checkCells(rows, cols);
+        ChessboardCover.Strategy strategy = ChessboardCover.Strategy.valueOf(
+                query.getOrDefault("strategy", ChessboardCover.Strategy.MINIMAL.name()));
+        Piece piece = Piece.parse(query.getOrDefault("piece", "knight"));
+
+        String key = rows + "x" + cols + ":" + strategy.name() + ":" + piece.getSpec();
+        CompletableFuture<Solved> mine = new CompletableFuture<>();
+        CompletableFuture<Solved> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            coalesced.increment();
+            shared[0] = true;
+            return await(running);
+        }
+        try {
+            mine.complete(compute(rows, cols, strategy, piece));
+        } catch (Throwable e) {
+            mine.completeExceptionally(e);
+        } finally {
+            inFlight.remove(key, mine);
+        }
+        return await(mine);
+    }
+
+    private Solved compute(int rows, int cols, ChessboardCover.Strategy strategy, Piece piece) {
+        admit();
+        try {
+            long start = System.nanoTime();
+            // 位棋盘引擎每格 1 位，并发求解的内存可控
+            ChessboardCover cover = new ChessboardCover(rows, cols, ChessboardCover.Engine.BITBOARD, strategy,
+                    cache, piece);
+            solves.increment();
+            return new Solved(cover.toBitboard(), strategy, (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            admission.release();
+        }
+    }
+
+    private static Solved await(CompletableFuture<Solved> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw e;
+        }
+    }
+
+    /**
+     * 等待准入，超时抛 RejectedExecutionException（映射为 503）
+     */
+    private void admit() {
+        boolean admitted;
+        try {
+            admitted = admission.tryAcquire(queueMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("等待求解时被中断");
+        }
+        if (!admitted) {
+            throw new RejectedExecutionException("求解繁忙，请稍后重试");
+        }
+    }
+
+    private void checkCells(int rows, int cols) {
+        if ((long) rows * cols > maxCells) {
+            throw new IllegalArgumentException("棋盘超过 " + maxCells + " 格的上限");
+        }
+    }
+
+    private static void appendCells(StringBuilder sb, BitboardCover cells, long limit) {
+        sb.append('[');
+        long[] left = {limit};
+        try {
+            CoverValidator.forEachCell(cells, (i, j) -> {
+                if (left[0]-- <= 0) return;
+                if (sb.charAt(sb.length() - 1) != '[') sb.append(',');
+                sb.append('[').append(i).append(',').append(j).append(']');
+            });
+        } catch (IOException e) {
+            throw new IllegalStateException(e);  // 写入 StringBuilder 不会抛出
+        }
+        sb.append(']');
+    }
+
+    private static Map<String, String> parseQuery(URI uri) {
+        Map<String, String> query = new HashMap<>();
+        String raw = uri.getRawQuery();
+        if (raw == null || raw.isEmpty()) return query;
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            query.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return query;
+    }
+
+    private static long parseLong(Map<String, String> query, String name, long defaultValue) {
+        String value = query.get(name);
+        if (value == null) {
+            if (defaultValue < 0) throw new IllegalArgumentException("缺少参数 " + name);
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("参数 " + name + " 不是整数：" + value);
+        }
+    }
+
+    private static void sendJson(HttpExchange exchange, int status, String json) throws IOException {
+        send(exchange, status, "application/json; charset=utf-8", json);
+    }
+
+    private static void sendText(HttpExchange exchange, int status, String text) throws IOException {
+        send(exchange, status, "text/plain; charset=utf-8", text + "\n");
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * 命令行入口：--serve [--port 8080] [--max-solves N] [--queue-millis N] [--max-cells N] [--cache 目录]
+     */
+    public static void main(String[] args) {
+        int port = DEFAULT_PORT;
+        int maxSolves = Runtime.getRuntime().availableProcessors();
+        long queueMillis = DEFAULT_QUEUE_MILLIS;
+        long maxCells = DEFAULT_MAX_CELLS;
+        String cacheDir = null;
+        try {
+            for (int k = 0; k < args.length; k++) {
+                switch (args[k]) {
+                    case "--serve": break;
+                    case "--port": port = Integer.parseInt(args[++k]); break;
+                    case "--max-solves": maxSolves = Integer.parseInt(args[++k]); break;
+                    case "--queue-millis": queueMillis = Long.parseLong(args[++k]); break;
+                    case "--max-cells": maxCells = Long.parseLong(args[++k]); break;
+                    case "--cache": cacheDir = args[++k]; break;
+                    default: throw new IllegalArgumentException("未知参数：" + args[k]);
+                }
+            }
+            if (maxSolves < 1) throw new IllegalArgumentException("--max-solves 至少为 1");
+        } catch (RuntimeException e) {
+            System.err.println("参数错误：" + e.getMessage());
+            System.err.println("用法：--serve [--port 8080] [--max-solves N] [--queue-millis N] [--max-cells N] "
+                    + "[--cache 目录]");
+            System.exit(2);
+            return;
+        }
+        try {
+            CoverServer server = new CoverServer(port, maxSolves, queueMillis, maxCells);
+            if (cacheDir != null) {
+                server.setSolutionCache(new SolutionCache(Paths.get(cacheDir)));
+            }
+            server.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> server.stop(1)));
+            System.out.println("覆盖服务已启动：http://localhost:" + server.getPort() + "/solve?rows=8&cols=8");
+        } catch (IOException e) {
+            System.err.println("无法启动服务：" + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,388 @@
+package chess;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * 校验外部给出的覆盖方案：是否满覆盖、每匹马是否必要，并列出全部未覆盖格与冗余马
+ *
+ * 全程整字位运算：每行用两张位平面按位累加覆盖次数（"至少 1 次"与"至少 2 次"），
+ * 一匹马冗余当且仅当它的闭邻域全部被覆盖至少 2 次，于是冗余马 = 有马 ∧ 各走法方向上"≥2"平面移位后的与。
+ * 棋盘切成行带在并行流上计算，每带只多算上下各 reach 行的覆盖平面，结果写入互不重叠的行。
+ */
+public final class CoverValidator {
+    // 每个行带大约包含的格子数
+    private static final int BAND_CELLS = 1 << 18;
+
+    private CoverValidator() {
+    }
+
+    /**
+     * 校验结果；未覆盖格与冗余马以位棋盘给出
+     */
+    public static final class Report {
+        private final BitboardCover uncovered;
+        private final BitboardCover redundant;
+        private final long uncoveredCount;
+        private final long redundantCount;
+        private final long knights;
+
+        Report(BitboardCover uncovered, BitboardCover redundant, long knights) {
+            this.uncovered = uncovered;
+            this.redundant = redundant;
+            this.uncoveredCount = uncovered.countHorses();
+            this.redundantCount = redundant.countHorses();
+            this.knights = knights;
+        }
+
+        public boolean isFullCover() { return uncoveredCount == 0; }
+        /** 满覆盖且没有冗余马 */
+        public boolean isMinimal() { return uncoveredCount == 0 && redundantCount == 0; }
+        public long getUncoveredCount() { return uncoveredCount; }
+        public long getRedundantCount() { return redundantCount; }
+        public long getKnights() { return knights; }
+        /** 未覆盖格（置位即未覆盖） */
+        public BitboardCover getUncovered() { return uncovered; }
+        /** 冗余马（去掉后不会产生新的未覆盖格） */
+        public BitboardCover getRedundant() { return redundant; }
+    }
+
+    /**
+     * 格子访问回调
+     */
+    public interface CellVisitor {
+        void visit(int row, int col) throws IOException;
+    }
+
+    /**
+     * 用公共 ForkJoinPool 校验
+     */
+    public static Report validate(BitboardCover cover) {
+        return validate(cover, (BoardMask) null);
+    }
+
+    /**
+     * 校验不规则棋盘上的方案：只有在盘格子需要覆盖，洞里的马不计（mask 为 null 即完整矩形）
+     */
+    public static Report validate(BitboardCover cover, BoardMask mask) {
+        if (mask != null && (mask.getRows() != cover.getRows() || mask.getCols() != cover.getCols())) {
+            throw new IllegalArgumentException("棋盘形状 " + mask + " 与方案的 " + cover.getRows() + "×"
+                    + cover.getCols() + " 不一致");
+        }
+        int rows = cover.getRows(), cols = cover.getCols();
+        Piece piece = cover.getPiece();
+        BitboardCover uncovered = new BitboardCover(rows, cols, piece);
+        BitboardCover redundant = new BitboardCover(rows, cols, piece);
+        int height = Math.max(1, BAND_CELLS / Math.max(1, cols));
+        int bands = (rows + height - 1) / height;
+        IntStream.range(0, bands).parallel().forEach(b ->
+                validateBand(cover, mask, b * height, Math.min(rows, (b + 1) * height), uncovered, redundant));
+        long knights = cover.countHorses();
+        if (mask != null) {
+            knights = 0;
+            for (int i = 0; i < rows; i++) {
+                for (int v = mask.rowStart(i); v < mask.rowStart(i + 1); v++) {
+                    if (cover.get(i, mask.col(v))) knights++;
+                }
+            }
+        }
+        return new Report(uncovered, redundant, knights);
+    }
+
+    /**
+     * 在指定线程池里校验（并行流在池内执行）
+     */
+    public static Report validate(BitboardCover cover, ForkJoinPool pool) {
+        return validate(cover, null, pool);
+    }
+
+    public static Report validate(BitboardCover cover, BoardMask mask, ForkJoinPool pool) {
+        try {
+            return pool.submit(() -> validate(cover, mask)).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("校验被中断", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * 计算 [from, to) 行的未覆盖格与冗余马
+     */
+    private static void validateBand(BitboardCover cover, BoardMask mask, int from, int to,
+                                     BitboardCover uncovered, BitboardCover redundant) {
+        int rows = cover.getRows(), cols = cover.getCols(), words = cover.getWordsPerRow();
+        Piece piece = cover.getPiece();
+        int reach = piece.getReach();
+        long lastMask = (cols & 63) == 0 ? -1L : (1L << (cols & 63)) - 1;
+        // 覆盖平面只需本带上下各 reach 行
+        int lo = Math.max(0, from - reach), hi = Math.min(rows, to + reach);
+        // 覆盖源行再向外 reach 行：带边上的行也要算全覆盖次数
+        int srcLo = Math.max(0, lo - reach), srcHi = Math.min(rows, hi + reach);
+        long[][] valid = new long[srcHi - srcLo][];
+        long[][] src = new long[srcHi - srcLo][];
+        long[] fullRow = new long[words];
+        Arrays.fill(fullRow, -1L);
+        fullRow[words - 1] = lastMask;
+        for (int i = srcLo; i < srcHi; i++) {
+            long[] v = mask == null ? fullRow : activeRow(mask, i, words);
+            long[] r = new long[words];
+            for (int w = 0; w < words; w++) {
+                r[w] = cover.getWord(i, w) & v[w];
+            }
+            valid[i - srcLo] = v;
+            src[i - srcLo] = r;
+        }
+        long[][] once = new long[hi - lo][words];
+        long[][] twice = new long[hi - lo][words];
+        long[] shifted = new long[words];
+        for (int i = lo; i < hi; i++) {
+            long[] one = once[i - lo], two = twice[i - lo];
+            // 本格的马算一次覆盖
+            System.arraycopy(src[i - srcLo], 0, one, 0, words);
+            for (int k = 0; k < piece.getMoveCount(); k++) {
+                // 第 x 行的马攻击第 i 行
+                int x = i - piece.dx(k);
+                if (x < srcLo || x >= srcHi) continue;
+                shift(src[x - srcLo], piece.dy(k), words, shifted);
+                for (int w = 0; w < words; w++) {
+                    two[w] |= one[w] & shifted[w];
+                    one[w] |= shifted[w];
+                }
+            }
+            // 行末无效位不参与之后的移位
+            two[words - 1] &= lastMask;
+        }
+
+        long[] notTwice = new long[words];
+        long[] red = new long[words];
+        for (int i = from; i < to; i++) {
+            long[] one = once[i - lo], two = twice[i - lo], own = src[i - srcLo], on = valid[i - srcLo];
+            for (int w = 0; w < words; w++) {
+                uncovered.setWord(i, w, ~one[w] & on[w]);
+                red[w] = own[w] & two[w];
+            }
+            for (int k = 0; k < piece.getMoveCount(); k++) {
+                // 落点 (i + dx, j + dy) 须被覆盖至少 2 次；盘外和洞里的落点不受影响
+                int t = i + piece.dx(k);
+                if (t < 0 || t >= rows) continue;
+                long[] target = twice[t - lo], targetOn = valid[t - srcLo];
+                for (int w = 0; w < words; w++) {
+                    notTwice[w] = ~target[w] & targetOn[w];
+                }
+                shift(notTwice, -piece.dy(k), words, shifted);
+                for (int w = 0; w < words; w++) {
+                    red[w] &= ~shifted[w];
+                }
+            }
+            for (int w = 0; w < words; w++) {
+                redundant.setWord(i, w, red[w]);
+            }
+        }
+    }
+
+    /**
+     * 第 i 行在盘格子的位掩码
+     */
+    private static long[] activeRow(BoardMask mask, int i, int words) {
+        long[] r = new long[words];
+        for (int v = mask.rowStart(i); v < mask.rowStart(i + 1); v++) {
+            int j = mask.col(v);
+            r[j >>> 6] |= 1L << j;
+        }
+        return r;
+    }
+
+    /**
+     * out 的第 c 位 = src 第 c - s 位（移出行外的补 0），|s| < 64
+     */
+    private static void shift(long[] src, int s, int words, long[] out) {
+        if (s == 0) {
+            System.arraycopy(src, 0, out, 0, words);
+        } else if (s > 0) {
+            long carry = 0;
+            for (int w = 0; w < words; w++) {
+                out[w] = (src[w] << s) | carry;
+                carry = src[w] >>> (64 - s);
+            }
+        } else {
+            int r = -s;
+            for (int w = 0; w < words; w++) {
+                long next = w + 1 < words ? src[w + 1] : 0L;
+                out[w] = (src[w] >>> r) | (next << (64 - r));
+            }
+        }
+    }
+
+    /**
+     * 按行优先顺序访问位棋盘中置位的格子
+     */
+    public static void forEachCell(BitboardCover bits, CellVisitor visitor) throws IOException {
+        int words = bits.getWordsPerRow();
+        for (int i = 0; i < bits.getRows(); i++) {
+            for (int w = 0; w < words; w++) {
+                long word = bits.getWord(i, w);
+                while (word != 0) {
+                    visitor.visit(i, (w << 6) + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+        }
+    }
+
+    /**
+     * 读入文本矩阵：每行一个棋盘行，'1' 为马、'0' 为空、'#' 为洞（按空格读入，形状另用 BoardMask 给出），
+     * 空白忽略（SolutionExporter 的矩阵格式即可）
+     */
+    public static BitboardCover readMatrix(Reader in, Piece piece) throws IOException {
+        BufferedReader reader = in instanceof BufferedReader ? (BufferedReader) in : new BufferedReader(in);
+        List<long[]> packed = new ArrayList<>();
+        int cols = -1;
+        String line;
+        int lineNo = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNo++;
+            long[] bits = new long[(line.length() + 63) >>> 6];
+            int n = 0;
+            for (int k = 0; k < line.length(); k++) {
+                char ch = line.charAt(k);
+                if (ch == '1') {
+                    bits[n >>> 6] |= 1L << n;
+                    n++;
+                } else if (ch == '0' || ch == '#') {
+                    n++;
+                } else if (!Character.isWhitespace(ch)) {
+                    throw new IOException("第 " + lineNo + " 行有无法识别的字符：" + ch);
+                }
+            }
+            if (n == 0) continue;
+            if (cols >= 0 && n != cols) {
+                throw new IOException("第 " + lineNo + " 行有 " + n + " 格，与前面的 " + cols + " 格不一致");
+            }
+            cols = n;
+            packed.add(bits);
+        }
+        if (packed.isEmpty()) {
+            throw new IOException("没有读到棋盘");
+        }
+        BitboardCover bb = new BitboardCover(packed.size(), cols, piece);
+        for (int i = 0; i < packed.size(); i++) {
+            long[] bits = packed.get(i);
+            for (int w = 0; w < bb.getWordsPerRow(); w++) {
+                bb.setWord(i, w, bits[w]);
+            }
+        }
+        return bb;
+    }
+
+    /**
+     * 按扩展名读入方案：.ksf 为二进制方案文件（自带棋子），其余按文本矩阵读，棋子取 piece
+     */
+    public static BitboardCover read(Path file, Piece piece) throws IOException {
+        if (file.getFileName().toString().endsWith(".ksf")) {
+            return SolutionFile.read(file);
+        }
+        try (Reader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return readMatrix(in, piece);
+        }
+    }
+
+    /**
+     * 选项 args[k-1] 的取值，缺失时报参数错误
+     */
+    private static String value(String[] args, int k) {
+        if (k >= args.length) throw new IllegalArgumentException(args[k - 1] + " 缺少取值");
+        return args[k];
+    }
+
+    /**
+     * 命令行入口：--validate 文件 [--piece knight|king|...] [--mask 形状文件] [--threads N] [--limit N]
+     * 打印摘要，再逐行列出未覆盖格和冗余马（--limit 限制各自列出的个数）；
+     * 满覆盖且极小时退出码为 0，否则为 1
+     */
+    public static void main(String[] args) {
+        String path = null;
+        String maskPath = null;
+        Piece piece = Piece.KNIGHT;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long limit = Long.MAX_VALUE;
+        try {
+            for (int k = 0; k < args.length; k++) {
+                switch (args[k]) {
+                    case "--validate": {
+                        if (k + 1 >= args.length || args[k + 1].startsWith("--")) {
+                            throw new IllegalArgumentException("缺少文件路径");
+                        }
+                        path = args[++k];
+                        break;
+                    }
+                    case "--piece": piece = Piece.parse(value(args, ++k)); break;
+                    case "--mask": maskPath = value(args, ++k); break;
+                    case "--threads": threads = Integer.parseInt(value(args, ++k)); break;
+                    case "--limit": limit = Long.parseLong(value(args, ++k)); break;
+                    default: throw new IllegalArgumentException("未知参数：" + args[k]);
+                }
+            }
+            if (path == null) throw new IllegalArgumentException("缺少文件路径");
+            if (threads < 1) throw new IllegalArgumentException("--threads 至少为 1");
+        } catch (RuntimeException e) {
+            System.err.println("参数错误：" + e.getMessage());
+            System.err.println("用法：--validate 文件(.ksf 或 0/1 矩阵) [--piece knight|king|camel|zebra|a,b] "
+                    + "[--mask 形状文件] [--threads N] [--limit N]");
+            System.exit(2);
+            return;
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        boolean valid;
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8))) {
+            long start = System.nanoTime();
+            BitboardCover cover = read(Paths.get(path), piece);
+            BoardMask mask = maskPath != null ? BoardMask.read(Paths.get(maskPath)) : null;
+            long loaded = System.nanoTime();
+            Report report = validate(cover, mask, pool);
+            long millis = (System.nanoTime() - loaded) / 1_000_000;
+            out.write("棋盘：" + cover.getRows() + " 行 × " + cover.getCols() + " 列，棋子：" + cover.getPiece().getLabel()
+                    + "，马数：" + report.getKnights() + "\n");
+            if (mask != null) out.write("在盘格子：" + mask.getActiveCount() + "\n");
+            out.write("满覆盖：" + (report.isFullCover() ? "是" : "否，未覆盖 " + report.getUncoveredCount() + " 格") + "\n");
+            out.write("极小：" + (report.isMinimal() ? "是" : "否，冗余马 " + report.getRedundantCount() + " 匹") + "\n");
+            out.write("读入 " + (loaded - start) / 1_000_000 + " 毫秒，校验 " + millis + " 毫秒\n");
+            list(out, "未覆盖", report.getUncovered(), limit);
+            list(out, "冗余马", report.getRedundant(), limit);
+            valid = report.isMinimal();
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("读入失败：" + e.getMessage());
+            System.exit(2);
+            return;
+        } finally {
+            pool.shutdown();
+        }
+        System.exit(valid ? 0 : 1);
+    }
+
+    private static void list(Writer out, String title, BitboardCover cells, long limit) throws IOException {
+        long[] left = {limit};
+        forEachCell(cells, (i, j) -> {
+            if (left[0]-- > 0) out.write(title + " " + i + "," + j + "\n");
+        });
+    }
+}
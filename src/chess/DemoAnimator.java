@@ -0,0 +1,153 @@
+package chess;
+
+import javax.swing.Timer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 演示动画引擎：求解线程只往无锁队列里写格子变化，
+ * Swing 定时器按帧率批量取出，合并成一次重绘。
+ * 界面只读本类持有的快照棋盘（仅在事件分发线程上修改），不与求解线程共享同一数组。
+ */
+public class DemoAnimator {
+    // 队列积压上限，超过后求解线程等待绘制追上
+    private static final int MAX_PENDING = 4096;
+
+    private final ConcurrentLinkedQueue<Long> events = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Timer timer;
+    private final FrameListener listener;
+    private volatile long stepDelayNanos;
+    private volatile Runnable onFinished;
+
+    // 以下仅在事件分发线程上访问
+    private int[][] board = new int[0][0];
+    private int horseCount;
+
+    /**
+     * 每帧回调：本帧内变化格子的外接矩形（含端点）
+     */
+    public interface FrameListener {
+        void onFrame(int minRow, int minCol, int maxRow, int maxCol);
+    }
+
+    public DemoAnimator(int framesPerSecond, FrameListener listener) {
+        this.listener = listener;
+        this.timer = new Timer(Math.max(1, 1000 / framesPerSecond), e -> drain());
+        this.timer.setCoalesce(true);
+    }
+
+    /**
+     * 每一步之后求解线程停顿的时间，0 表示全速
+     */
+    public void setStepDelay(long millis) {
+        this.stepDelayNanos = TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    /**
+     * 直接显示一个棋盘（不复制），用于非演示状态（事件分发线程调用）
+     */
+    public void show(int[][] board) {
+        this.board = board;
+        this.horseCount = count(board);
+    }
+
+    /**
+     * 开始演示：复制当前棋盘作为快照并启动定时器（事件分发线程调用）
+     */
+    public void begin(int[][] initial) {
+        events.clear();
+        pending.set(0);
+        onFinished = null;
+        int[][] copy = new int[initial.length][];
+        for (int i = 0; i < initial.length; i++) {
+            copy[i] = initial[i].clone();
+        }
+        show(copy);
+        timer.start();
+    }
+
+    /**
+     * 记录一个格子变化并按当前速度节流（求解线程调用）
+     */
+    public void publish(int i, int j, boolean horse) {
+        events.offer(((long) i << 32) | ((long) j << 1) | (horse ? 1 : 0));
+        pending.incrementAndGet();
+        pace();
+    }
+
+    /**
+     * 只节流不产生事件（求解线程调用）
+     */
+    public void pace() {
+        long delay = stepDelayNanos;
+        if (delay > 0) {
+            LockSupport.parkNanos(delay);
+        }
+        while (pending.get() > MAX_PENDING && !Thread.currentThread().isInterrupted()) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(timer.getDelay()));
+        }
+    }
+
+    /**
+     * 求解结束：队列全部画完后在事件分发线程上执行 done 并停止定时器（任意线程调用）
+     */
+    public void finish(Runnable done) {
+        onFinished = done;
+    }
+
+    public boolean isRunning() { return timer.isRunning(); }
+
+    public int[][] getBoard() { return board; }
+
+    public int getHorseCount() { return horseCount; }
+
+    /**
+     * 定时器回调：取出积压的全部变化，应用到快照，合并为一次重绘
+     */
+    private void drain() {
+        // 先读结束标记，保证它之前发布的事件都会在本轮被取出
+        Runnable done = onFinished;
+        int minRow = Integer.MAX_VALUE, minCol = Integer.MAX_VALUE;
+        int maxRow = -1, maxCol = -1;
+        int drained = 0;
+        Long event;
+        while ((event = events.poll()) != null) {
+            long e = event;
+            int i = (int) (e >>> 32);
+            int j = (int) ((e & 0xFFFFFFFFL) >>> 1);
+            int value = (int) (e & 1);
+            drained++;
+            if (i >= board.length || j >= board[i].length || board[i][j] == value) {
+                continue;
+            }
+            board[i][j] = value;
+            horseCount += value == 1 ? 1 : -1;
+            minRow = Math.min(minRow, i);
+            maxRow = Math.max(maxRow, i);
+            minCol = Math.min(minCol, j);
+            maxCol = Math.max(maxCol, j);
+        }
+        pending.addAndGet(-drained);
+        if (maxRow >= 0) {
+            listener.onFrame(minRow, minCol, maxRow, maxCol);
+        }
+        if (done != null && events.isEmpty()) {
+            timer.stop();
+            onFinished = null;
+            done.run();
+        }
+    }
+
+    private static int count(int[][] board) {
+        int count = 0;
+        for (int[] row : board) {
+            for (int v : row) {
+                count += v;
+            }
+        }
+        return count;
+    }
+}
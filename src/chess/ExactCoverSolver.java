@@ -0,0 +1,300 @@
+package chess;
+
+/**
+ * 精确最小覆盖：分支定界求马（或其他跳子）的最小控制集
+ * 覆盖状态用位集表示，下界取"两两不共享候选马的未覆盖格"个数
+ */
+public class ExactCoverSolver {
+    private final int rows;
+    private final int cols;
+    private final int cells;
+    private final int words;
+    private final long[][] closed;   // closed[c]：放在 c 的马能覆盖的格子（含自身）
+    private final long fullLast;     // 末字有效位
+    private final int[] boundOrder;  // 求下界时按邻域从小到大访问格子（角、边优先）
+    private final Piece piece;
+    private final int maxClosed;     // 闭邻域最多的格子数
+
+    private int best;                // 当前最优解的马数
+    private long[] bestSet;
+    private int rootLowerBound;
+    private long nodes;
+    private boolean stopped;         // 发现中断后置位，各层搜索见到即返回
+    private BoundListener listener;
+
+    // 每层搜索的状态，预先分配避免递归中创建对象
+    private long[][] coveredStack;
+    private long[][] forbiddenStack;
+    private long[][] chosenStack;
+    private int[][] optionStack;     // 每层的候选马，最多 maxClosed 个
+    private int[][] gainStack;
+    private long[] scratch;
+
+    /**
+     * 求解进度回调
+     */
+    public interface BoundListener {
+        /**
+         * @param best 当前已知最优（上界）
+         * @param lowerBound 根节点下界
+         */
+        void onBoundImproved(int best, int lowerBound);
+    }
+
+    public ExactCoverSolver(int rows, int cols) {
+        this(rows, cols, Piece.KNIGHT);
+    }
+
+    public ExactCoverSolver(int rows, int cols, Piece piece) {
+        this.rows = rows;
+        this.cols = cols;
+        this.piece = piece;
+        this.cells = rows * cols;
+        this.words = (cells + 63) >>> 6;
+        this.fullLast = (cells & 63) == 0 ? -1L : (1L << (cells & 63)) - 1;
+        this.closed = new long[cells][words];
+        MoveTable t = MoveTable.compile(rows, cols, piece);
+        this.maxClosed = t.maxDegree + 1;
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                int c = i * cols + j;
+                setBit(closed[c], c);
+                int p = t.rowClass[i] + t.colClass[j];
+                for (int k = t.start[p]; k < t.start[p + 1]; k++) {
+                    setBit(closed[c], c + t.delta[k]);
+                }
+            }
+        }
+        Integer[] order = new Integer[cells];
+        for (int c = 0; c < cells; c++) order[c] = c;
+        java.util.Arrays.sort(order, (a, b) -> Integer.compare(countBits(closed[a]), countBits(closed[b])));
+        this.boundOrder = new int[cells];
+        for (int c = 0; c < cells; c++) boundOrder[c] = order[c];
+    }
+
+    public void setListener(BoundListener listener) {
+        this.listener = listener;
+    }
+
+    public long getNodes() { return nodes; }
+    public int getLowerBound() { return rootLowerBound; }
+
+    /**
+     * 求解最小覆盖
+     * @param initial 初始可行解（可为 null），用作初始上界
+     * @return 最小覆盖，线程被中断时返回当前最优
+     */
+    public BitboardCover solve(BitboardCover initial) {
+        best = cells + 1;
+        bestSet = null;
+        nodes = 0;
+        stopped = false;
+        if (initial != null) {
+            long[] set = new long[words];
+            int count = 0;
+            for (int i = 0; i < rows; i++) {
+                for (int j = 0; j < cols; j++) {
+                    if (initial.get(i, j)) {
+                        setBit(set, i * cols + j);
+                        count++;
+                    }
+                }
+            }
+            best = count;
+            bestSet = set;
+        }
+
+        coveredStack = new long[cells + 2][words];
+        forbiddenStack = new long[cells + 2][words];
+        chosenStack = new long[cells + 2][words];
+        optionStack = new int[cells + 2][maxClosed];
+        gainStack = new int[cells + 2][maxClosed];
+        scratch = new long[words];
+        rootLowerBound = lowerBound(coveredStack[0], forbiddenStack[0]);
+        if (listener != null && bestSet != null) {
+            listener.onBoundImproved(best, rootLowerBound);
+        }
+        if (best > rootLowerBound) {
+            search(0);
+        }
+
+        BitboardCover result = new BitboardCover(rows, cols, piece);
+        if (bestSet == null) {
+            // 中断时尚无可行解：退回全放马
+            result.fill();
+            return result;
+        }
+        for (int c = 0; c < cells; c++) {
+            if (testBit(bestSet, c)) {
+                result.set(c / cols, c % cols);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * depth 同时也是已放置的马数
+     */
+    private void search(int depth) {
+        nodes++;
+        if ((nodes & 0xFFF) == 0 && Thread.currentThread().isInterrupted()) {
+            stopped = true;
+        }
+        if (stopped) {
+            return;
+        }
+        long[] covered = coveredStack[depth];
+        long[] forbidden = forbiddenStack[depth];
+        long[] chosen = chosenStack[depth];
+
+        // 选候选马最少的未覆盖格分支
+        int branchCell = -1;
+        int branchOptions = Integer.MAX_VALUE;
+        for (int w = 0; w < words; w++) {
+            long free = ~covered[w] & (w == words - 1 ? fullLast : -1L);
+            while (free != 0) {
+                int c = (w << 6) + Long.numberOfTrailingZeros(free);
+                free &= free - 1;
+                int options = countAndNot(closed[c], forbidden);
+                if (options < branchOptions) {
+                    branchOptions = options;
+                    branchCell = c;
+                    if (options <= 1) break;
+                }
+            }
+            if (branchOptions <= 1) break;
+        }
+
+        if (branchCell < 0) {
+            // 已满覆盖
+            if (depth < best) {
+                best = depth;
+                bestSet = chosen.clone();
+                if (listener != null) {
+                    listener.onBoundImproved(best, rootLowerBound);
+                }
+            }
+            return;
+        }
+        if (branchOptions == 0 || depth + 1 >= best) {
+            return;
+        }
+
+        // 候选马按新增覆盖数从大到小排序
+        int[] options = optionStack[depth];
+        int[] gains = gainStack[depth];
+        int n = 0;
+        long[] nb = closed[branchCell];
+        for (int w = 0; w < words; w++) {
+            long cand = nb[w] & ~forbidden[w];
+            while (cand != 0) {
+                int c = (w << 6) + Long.numberOfTrailingZeros(cand);
+                cand &= cand - 1;
+                int gain = countAndNot(closed[c], covered);
+                int k = n++;
+                while (k > 0 && gains[k - 1] < gain) {
+                    options[k] = options[k - 1];
+                    gains[k] = gains[k - 1];
+                    k--;
+                }
+                options[k] = c;
+                gains[k] = gain;
+            }
+        }
+
+        long[] nextCovered = coveredStack[depth + 1];
+        long[] nextForbidden = forbiddenStack[depth + 1];
+        long[] nextChosen = chosenStack[depth + 1];
+        for (int k = 0; k < n && !stopped; k++) {
+            int c = options[k];
+            if (dominated(c, options, k, covered)) {
+                // 新增覆盖被前面某个候选包含，该分支不会更优
+                continue;
+            }
+            for (int w = 0; w < words; w++) {
+                nextCovered[w] = covered[w] | closed[c][w];
+                nextForbidden[w] = forbidden[w];
+                nextChosen[w] = chosen[w];
+            }
+            setBit(nextChosen, c);
+            // 前面的兄弟分支已考虑过的马不再重复选择
+            for (int p = 0; p < k; p++) {
+                setBit(nextForbidden, options[p]);
+            }
+            if (depth + 1 + lowerBound(nextCovered, nextForbidden) < best) {
+                search(depth + 1);
+            }
+            if (stopped || depth + 1 >= best) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * c 的新增覆盖是否为 options[0..k) 中某个候选新增覆盖的子集
+     */
+    private boolean dominated(int c, int[] options, int k, long[] covered) {
+        long[] nc = closed[c];
+        for (int p = 0; p < k; p++) {
+            long[] np = closed[options[p]];
+            boolean subset = true;
+            for (int w = 0; w < words; w++) {
+                if ((nc[w] & ~covered[w] & ~np[w]) != 0) {
+                    subset = false;
+                    break;
+                }
+            }
+            if (subset) return true;
+        }
+        return false;
+    }
+
+    /**
+     * 下界：贪心挑出候选马集合两两不相交的未覆盖格，每格至少需要一匹不同的马
+     */
+    private int lowerBound(long[] covered, long[] forbidden) {
+        long[] used = scratch;
+        java.util.Arrays.fill(used, 0L);
+        int bound = 0;
+        for (int c : boundOrder) {
+            if (testBit(covered, c)) continue;
+            long[] nb = closed[c];
+            boolean disjoint = true;
+            for (int k = 0; k < words; k++) {
+                if ((nb[k] & ~forbidden[k] & used[k]) != 0) {
+                    disjoint = false;
+                    break;
+                }
+            }
+            if (disjoint) {
+                bound++;
+                for (int k = 0; k < words; k++) {
+                    used[k] |= nb[k] & ~forbidden[k];
+                }
+            }
+        }
+        return bound;
+    }
+
+    private int countAndNot(long[] a, long[] b) {
+        int count = 0;
+        for (int w = 0; w < words; w++) {
+            count += Long.bitCount(a[w] & ~b[w]);
+        }
+        return count;
+    }
+
+    private static int countBits(long[] set) {
+        int count = 0;
+        for (long w : set) count += Long.bitCount(w);
+        return count;
+    }
+
+    private static void setBit(long[] set, int c) {
+        set[c >>> 6] |= 1L << c;
+    }
+
+    private static boolean testBit(long[] set, int c) {
+        return (set[c >>> 6] & (1L << c)) != 0;
+    }
+}
@@ -0,0 +1,222 @@
+package chess;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * CoverServer 的本机压测：若干客户端线程闭环发请求（收到响应才发下一个），
+ * 棋盘大小在给定范围内随机，统计吞吐量与延迟分位数。不指定 --url 时在本进程内起一个服务
+ */
+public class LoadGenerator {
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final String baseUrl;
+    private final String path;  // solve、report 或 validate
+    private final int[] sizes;
+    private final Map<Integer, String> bodies = new TreeMap<>();  // validate 用：各边长的极小覆盖矩阵
+
+    public LoadGenerator(String baseUrl, String path, int sizeFrom, int sizeTo) {
+        this.baseUrl = baseUrl;
+        this.path = path;
+        this.sizes = new int[sizeTo - sizeFrom + 1];
+        for (int k = 0; k < sizes.length; k++) {
+            sizes[k] = sizeFrom + k;
+        }
+    }
+
+    /**
+     * 压测结果；延迟单位为微秒
+     */
+    public static final class Result {
+        private final long[] latencies;  // 已排序
+        private final long wallNanos;
+        private final Map<Integer, Integer> statuses;
+
+        Result(long[] latencies, long wallNanos, Map<Integer, Integer> statuses) {
+            this.latencies = latencies;
+            this.wallNanos = wallNanos;
+            this.statuses = statuses;
+        }
+
+        public int getRequests() { return latencies.length; }
+        public double getThroughput() { return latencies.length / (wallNanos / 1e9); }
+        public Map<Integer, Integer> getStatuses() { return statuses; }
+
+        /**
+         * 延迟的 q 分位（0..1，取最近秩），微秒
+         */
+        public long percentile(double q) {
+            if (latencies.length == 0) return 0;
+            int rank = (int) Math.ceil(q * latencies.length) - 1;
+            return latencies[Math.max(0, Math.min(latencies.length - 1, rank))];
+        }
+
+        @Override
+        public String toString() {
+            return String.format("请求 %d 个，用时 %.2f 秒，吞吐 %.1f 请求/秒，延迟 p50 %.2f ms、p99 %.2f ms、最大 %.2f ms，状态码 %s",
+                    latencies.length, wallNanos / 1e9, getThroughput(), percentile(0.5) / 1000.0,
+                    percentile(0.99) / 1000.0, percentile(1.0) / 1000.0, statuses);
+        }
+    }
+
+    /**
+     * clients 个闭环客户端共发 requests 个请求
+     */
+    public Result run(int clients, int requests, long seed) throws InterruptedException {
+        if (path.equals("validate")) {
+            prepareBodies();
+        }
+        long[] latencies = new long[requests];
+        int[] codes = new int[requests];
+        AtomicInteger next = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(clients);
+        long start = System.nanoTime();
+        for (int c = 0; c < clients; c++) {
+            Random random = new Random(seed + c);
+            Thread t = new Thread(() -> {
+                try {
+                    int k;
+                    while ((k = next.getAndIncrement()) < requests) {
+                        int size = sizes[random.nextInt(sizes.length)];
+                        long begin = System.nanoTime();
+                        codes[k] = send(size);
+                        latencies[k] = (System.nanoTime() - begin) / 1000;
+                    }
+                } finally {
+                    done.countDown();
+                }
+            }, "load-client-" + c);
+            t.setDaemon(true);
+            t.start();
+        }
+        done.await();
+        long wall = System.nanoTime() - start;
+        Map<Integer, Integer> statuses = new TreeMap<>();
+        for (int code : codes) {
+            statuses.merge(code, 1, Integer::sum);
+        }
+        Arrays.sort(latencies);
+        return new Result(latencies, wall, statuses);
+    }
+
+    /**
+     * 发一个请求，返回状态码；连接失败记为 0
+     */
+    private int send(int size) {
+        try {
+            HttpRequest request;
+            if (path.equals("validate")) {
+                request = HttpRequest.newBuilder(URI.create(baseUrl + "/validate"))
+                        .POST(HttpRequest.BodyPublishers.ofString(bodies.get(size))).build();
+            } else {
+                request = HttpRequest.newBuilder(URI.create(baseUrl + "/" + path + "?rows=" + size + "&cols=" + size))
+                        .GET().build();
+            }
+            return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            return 0;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        }
+    }
+
+    private void prepareBodies() {
+        for (int size : sizes) {
+            ChessboardCover cover = new ChessboardCover(size, size);
+            StringWriter out = new StringWriter();
+            try {
+                new SolutionExporter(size, size, cover.getBoard()).writeMatrix(out);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);  // StringWriter 不会抛出
+            }
+            bodies.put(size, out.toString());
+        }
+    }
+
+    private String fetch(String endpoint) throws IOException, InterruptedException {
+        return client.send(HttpRequest.newBuilder(URI.create(baseUrl + endpoint)).build(),
+                HttpResponse.BodyHandlers.ofString()).body();
+    }
+
+    /**
+     * 命令行入口：--load [--url http://localhost:8080] [--path solve|report|validate] [--clients N]
+     * [--requests N] [--sizes 8-64] [--warmup N] [--max-solves N]（后者只对内置服务有效）
+     */
+    public static void main(String[] args) {
+        String url = null;
+        String path = "solve";
+        int clients = 16;
+        int requests = 2000;
+        int warmup = 200;
+        int[] sizes = {8, 64};
+        int maxSolves = Runtime.getRuntime().availableProcessors();
+        try {
+            for (int k = 0; k < args.length; k++) {
+                switch (args[k]) {
+                    case "--load": break;
+                    case "--url": url = args[++k]; break;
+                    case "--path": path = args[++k]; break;
+                    case "--clients": clients = Integer.parseInt(args[++k]); break;
+                    case "--requests": requests = Integer.parseInt(args[++k]); break;
+                    case "--warmup": warmup = Integer.parseInt(args[++k]); break;
+                    case "--max-solves": maxSolves = Integer.parseInt(args[++k]); break;
+                    case "--sizes": {
+                        String text = args[++k];
+                        int dash = text.indexOf('-');
+                        int from = Integer.parseInt((dash < 0 ? text : text.substring(0, dash)).trim());
+                        int to = dash < 0 ? from : Integer.parseInt(text.substring(dash + 1).trim());
+                        if (from < 1 || to < from) throw new IllegalArgumentException("范围无效：" + text);
+                        sizes = new int[]{from, to};
+                        break;
+                    }
+                    default: throw new IllegalArgumentException("未知参数：" + args[k]);
+                }
+            }
+            if (!path.equals("solve") && !path.equals("report") && !path.equals("validate")) {
+                throw new IllegalArgumentException("--path 只支持 solve、report 或 validate");
+            }
+            if (clients < 1 || requests < 1) throw new IllegalArgumentException("--clients 和 --requests 至少为 1");
+        } catch (RuntimeException e) {
+            System.err.println("参数错误：" + e.getMessage());
+            System.err.println("用法：--load [--url 地址] [--path solve|report|validate] [--clients N] [--requests N] "
+                    + "[--sizes 8-64] [--warmup N] [--max-solves N]");
+            System.exit(2);
+            return;
+        }
+
+        CoverServer server = null;
+        try {
+            if (url == null) {
+                server = new CoverServer(0, maxSolves, 2000, CoverServer.DEFAULT_MAX_CELLS);
+                server.start();
+                url = "http://localhost:" + server.getPort();
+            }
+            LoadGenerator generator = new LoadGenerator(url, path, sizes[0], sizes[1]);
+            if (warmup > 0) {
+                generator.run(clients, warmup, -1);
+            }
+            Result result = generator.run(clients, requests, 1);
+            System.out.println(path + " " + sizes[0] + "-" + sizes[1] + "，" + clients + " 个客户端：" + result);
+            System.out.println("服务端统计：" + generator.fetch("/stats"));
+        } catch (IOException e) {
+            System.err.println("压测失败：" + e.getMessage());
+            System.exit(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.exit(1);
+        } finally {
+            if (server != null) server.stop(0);
+        }
+    }
+}
@@ -0,0 +1,363 @@
+package chess;
+
+import java.util.SplittableRandom;
+
+/**
+ * 局部搜索改进：从一个满覆盖出发，在时限内尝试用更少的马覆盖全盘
+ *
+ * 有满覆盖时先删掉一匹损失最小的马，之后每步"删一匹、在某个未覆盖格的邻域里加一匹"，直到重新满覆盖。
+ * 每步给仍未覆盖的格子加权，避免反复卡在同一处；刚加入或删除的马若干步内不再动（禁忌）。
+ * 覆盖计数增量维护，每步只触及两匹马的闭邻域（走法表预先编译，不做越界判断）。
+ * 每个线程独立搜索，找到马数更少的满覆盖立即发布（先去冗余）；长时间没有进展就从全局最优重新开始。
+ */
+public class LocalSearchOptimizer {
+    // 选要删除的马时随机抽样的个数
+    private static final int SAMPLE = 50;
+    private static final int TABU_TENURE = 7;
+    // 权重超过该值时全体减半，防止溢出
+    private static final int WEIGHT_CAP = 1 << 24;
+    // 每多少步看一次时限
+    private static final int CHECK_MASK = 255;
+    // 每格工作数组占用的字节数（6 个 int 数组 + 1 个 long 数组）
+    private static final long BYTES_PER_CELL = 32;
+
+    private final int rows;
+    private final int cols;
+    private final int threads;
+    private final Piece piece;
+    private final MoveTable moves;
+    private final int lowerBound;  // 每匹马最多覆盖 maxDegree + 1 格
+    private long seed = 1L;
+    private ImprovementListener listener;
+    private volatile boolean stop;
+
+    // 全局最优，由 this 保护
+    private BitboardCover best;
+    private int bestKnights;
+
+    /**
+     * 找到更好覆盖时回调（在搜索线程上，应尽快返回；cover 是副本，可以留用）
+     */
+    public interface ImprovementListener {
+        void onImproved(BitboardCover cover, int knights);
+    }
+
+    public LocalSearchOptimizer(int rows, int cols) {
+        this(rows, cols, Piece.KNIGHT);
+    }
+
+    public LocalSearchOptimizer(int rows, int cols, Piece piece) {
+        this(rows, cols, piece, Runtime.getRuntime().availableProcessors());
+    }
+
+    public LocalSearchOptimizer(int rows, int cols, int threads) {
+        this(rows, cols, Piece.KNIGHT, threads);
+    }
+
+    public LocalSearchOptimizer(int rows, int cols, Piece piece, int threads) {
+        this.rows = rows;
+        this.cols = cols;
+        this.piece = piece;
+        this.moves = MoveTable.compile(rows, cols, piece);
+        // 每个线程各有一套与格子数成正比的数组，按可用堆的四分之一限制线程数
+        long perThread = (long) rows * cols * BYTES_PER_CELL;
+        long budget = Runtime.getRuntime().maxMemory() / 4;
+        this.threads = (int) Math.max(1, Math.min(threads, budget / Math.max(1, perThread)));
+        int closedMax = moves.maxDegree + 1;
+        this.lowerBound = (int) (((long) rows * cols + closedMax - 1) / closedMax);
+    }
+
+    public void setListener(ImprovementListener listener) {
+        this.listener = listener;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * 请求尽快结束（可跨线程调用）
+     */
+    public void cancel() {
+        stop = true;
+    }
+
+    /**
+     * 从满覆盖 initial 出发搜索到 deadlineNanos（System.nanoTime 时刻），
+     * 调用线程被中断时提前结束；返回最好的覆盖（不差于 initial，且极小）
+     */
+    public BitboardCover optimize(BitboardCover initial, long deadlineNanos) {
+        BitboardCover start = new BitboardCover(rows, cols, piece);
+        start.copyFrom(initial);
+        start.minimize();
+        synchronized (this) {
+            best = start;
+            bestKnights = start.countHorses();
+        }
+        stop = false;
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            Worker worker = new Worker(seed + 0x9E3779B97F4A7C15L * (t + 1), deadlineNanos);
+            workers[t] = new Thread(worker, "local-search-" + t);
+            workers[t].setDaemon(true);
+            workers[t].start();
+        }
+        boolean interrupted = false;
+        for (Thread w : workers) {
+            while (w.isAlive()) {
+                try {
+                    w.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                    stop = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            return best.copy();
+        }
+    }
+
+    /**
+     * 发布一个满覆盖，比全局最优好时才采用
+     */
+    private void offer(Worker worker) {
+        synchronized (this) {
+            if (worker.k >= bestKnights) return;
+        }
+        BitboardCover bb = worker.snapshot();
+        bb.minimize();
+        int knights = bb.countHorses();
+        synchronized (this) {
+            if (knights >= bestKnights) return;
+            best = bb;
+            bestKnights = knights;
+            if (knights <= lowerBound) stop = true;
+            if (listener != null) listener.onImproved(bb.copy(), knights);
+        }
+    }
+
+    private synchronized BitboardCover currentBest() {
+        return best.copy();
+    }
+
+    /**
+     * 单个搜索线程的状态，格子按行优先编号
+     */
+    private final class Worker implements Runnable {
+        private final int n = rows * cols;
+        private final int[] cov = new int[n];        // 闭邻域内的马数
+        private final int[] weight = new int[n];
+        private final int[] knights = new int[n];    // 马的列表
+        private final int[] knightPos = new int[n];  // 在 knights 中的位置，-1 表示无马
+        private final int[] unc = new int[n];        // 未覆盖格列表
+        private final int[] uncPos = new int[n];     // 在 unc 中的位置，-1 表示已覆盖
+        private final long[] tabuUntil = new long[n];
+        private final int[] nb = new int[moves.maxDegree + 1];
+        private final int[] cand = new int[moves.maxDegree + 1];
+        private final SplittableRandom rng;
+        private final long deadline;
+        private final long stallSteps = Math.max(200_000L, 50L * rows * cols);
+        private int k;
+        private int u;
+        private long step;
+
+        Worker(long seed, long deadline) {
+            this.rng = new SplittableRandom(seed);
+            this.deadline = deadline;
+        }
+
+        @Override
+        public void run() {
+            load(currentBest());
+            long lastProgress = 0;
+            while (!stop) {
+                step++;
+                if ((step & CHECK_MASK) == 0 && System.nanoTime() >= deadline) {
+                    break;
+                }
+                if (u == 0) {
+                    offer(this);
+                    lastProgress = step;
+                    if (k == 0) break;
+                    int r = pickRemove();
+                    remove(r);
+                    tabuUntil[r] = step + TABU_TENURE;
+                    continue;
+                }
+                if (step - lastProgress > stallSteps) {
+                    // 长期停滞：回到全局最优，清空权重和禁忌
+                    load(currentBest());
+                    lastProgress = step;
+                    continue;
+                }
+                int r = pickRemove();
+                remove(r);
+                tabuUntil[r] = step + TABU_TENURE;
+                int a = pickAdd(unc[rng.nextInt(u)]);
+                add(a);
+                tabuUntil[a] = step + TABU_TENURE;
+                bumpWeights();
+            }
+        }
+
+        /**
+         * 以 bb 为当前解，重置权重与禁忌
+         */
+        private void load(BitboardCover bb) {
+            k = 0;
+            u = 0;
+            for (int v = 0; v < n; v++) {
+                cov[v] = 0;
+                weight[v] = 1;
+                knightPos[v] = -1;
+                tabuUntil[v] = 0;
+                uncPos[v] = u;
+                unc[u++] = v;
+            }
+            for (int i = 0; i < rows; i++) {
+                for (int j = 0; j < cols; j++) {
+                    if (bb.get(i, j)) add(i * cols + j);
+                }
+            }
+        }
+
+        /**
+         * v 的闭邻域（本格 + 各走法落点）写入 nb，返回个数
+         */
+        private int closed(int v) {
+            MoveTable t = moves;
+            int i = v / cols;
+            int p = t.rowClass[i] + t.colClass[v - i * cols];
+            int c = 0;
+            nb[c++] = v;
+            for (int k = t.start[p], end = t.start[p + 1]; k < end; k++) {
+                nb[c++] = v + t.delta[k];
+            }
+            return c;
+        }
+
+        private void add(int v) {
+            knightPos[v] = k;
+            knights[k++] = v;
+            int c = closed(v);
+            for (int t = 0; t < c; t++) {
+                int x = nb[t];
+                if (cov[x]++ == 0) {
+                    int p = uncPos[x], last = unc[--u];
+                    unc[p] = last;
+                    uncPos[last] = p;
+                    uncPos[x] = -1;
+                }
+            }
+        }
+
+        private void remove(int v) {
+            int p = knightPos[v], last = knights[--k];
+            knights[p] = last;
+            knightPos[last] = p;
+            knightPos[v] = -1;
+            int c = closed(v);
+            for (int t = 0; t < c; t++) {
+                int x = nb[t];
+                if (--cov[x] == 0) {
+                    uncPos[x] = u;
+                    unc[u++] = x;
+                }
+            }
+        }
+
+        /**
+         * 删掉 v 会新产生的未覆盖格的权重和
+         */
+        private long loss(int v) {
+            int c = closed(v);
+            long sum = 0;
+            for (int t = 0; t < c; t++) {
+                if (cov[nb[t]] == 1) sum += weight[nb[t]];
+            }
+            return sum;
+        }
+
+        /**
+         * 在 v 放马能新覆盖的格子的权重和
+         */
+        private long gain(int v) {
+            int c = closed(v);
+            long sum = 0;
+            for (int t = 0; t < c; t++) {
+                if (cov[nb[t]] == 0) sum += weight[nb[t]];
+            }
+            return sum;
+        }
+
+        /**
+         * 随机抽样若干匹马，取损失最小的非禁忌者（全在禁忌中时取损失最小者）
+         */
+        private int pickRemove() {
+            int samples = Math.min(SAMPLE, k);
+            int bestFree = -1, bestAny = -1;
+            long bestFreeLoss = Long.MAX_VALUE, bestAnyLoss = Long.MAX_VALUE;
+            for (int s = 0; s < samples; s++) {
+                int v = samples == k ? knights[s] : knights[rng.nextInt(k)];
+                long l = loss(v);
+                if (l < bestAnyLoss) {
+                    bestAnyLoss = l;
+                    bestAny = v;
+                }
+                if (tabuUntil[v] <= step && l < bestFreeLoss) {
+                    bestFreeLoss = l;
+                    bestFree = v;
+                }
+            }
+            return bestFree >= 0 ? bestFree : bestAny;
+        }
+
+        /**
+         * 未覆盖格 c 的闭邻域里取增益最大的非禁忌格（c 未覆盖，所以这些格都没有马）
+         */
+        private int pickAdd(int c) {
+            int count = closed(c);
+            System.arraycopy(nb, 0, cand, 0, count);
+            int choice = -1, ties = 0;
+            long bestGain = -1;
+            for (int t = 0; t < count; t++) {
+                int v = cand[t];
+                if (tabuUntil[v] > step) continue;
+                long g = gain(v);
+                if (g > bestGain) {
+                    bestGain = g;
+                    choice = v;
+                    ties = 1;
+                } else if (g == bestGain && rng.nextInt(++ties) == 0) {
+                    choice = v;
+                }
+            }
+            return choice >= 0 ? choice : cand[rng.nextInt(count)];
+        }
+
+        private void bumpWeights() {
+            boolean overflow = false;
+            for (int t = 0; t < u; t++) {
+                if (++weight[unc[t]] > WEIGHT_CAP) overflow = true;
+            }
+            if (overflow) {
+                for (int v = 0; v < n; v++) {
+                    weight[v] = Math.max(1, weight[v] >> 1);
+                }
+            }
+        }
+
+        BitboardCover snapshot() {
+            BitboardCover bb = new BitboardCover(rows, cols, piece);
+            for (int t = 0; t < k; t++) {
+                int v = knights[t];
+                bb.set(v / cols, v % cols);
+            }
+            return bb;
+        }
+    }
+}
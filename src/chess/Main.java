@@ -0,0 +1,40 @@
+package chess;
+
+import javax.swing.SwingUtilities;
+
+public class Main {
+    public static void main(String[] args) {
+        if (args.length > 0 && "--batch".equals(args[0])) {
+            // 命令行批量模式，不加载任何界面组件
+            System.setProperty("java.awt.headless", "true");
+            BatchRunner.main(args);
+            return;
+        }
+        if (args.length > 0 && "--enumerate".equals(args[0])) {
+            // 枚举全部极小/最小覆盖
+            System.setProperty("java.awt.headless", "true");
+            CoverEnumerator.main(args);
+            return;
+        }
+        if (args.length > 0 && "--validate".equals(args[0])) {
+            // 校验外部给出的覆盖方案
+            System.setProperty("java.awt.headless", "true");
+            CoverValidator.main(args);
+            return;
+        }
+        if (args.length > 0 && "--serve".equals(args[0])) {
+            // 本机 HTTP 求解服务
+            System.setProperty("java.awt.headless", "true");
+            CoverServer.main(args);
+            return;
+        }
+        if (args.length > 0 && "--load".equals(args[0])) {
+            // 对求解服务压测
+            System.setProperty("java.awt.headless", "true");
+            LoadGenerator.main(args);
+            return;
+        }
+        // 在Swing事件线程中启动界面，避免卡顿
+        SwingUtilities.invokeLater(() -> new ChessboardGUI());
+    }
+}
\ No newline at end of file
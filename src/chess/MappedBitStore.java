@@ -0,0 +1,168 @@
+package chess;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 内存映射的位棋盘存储：每格 1 位存在文件里，按行带分段映射，用到哪段才映射哪段
+ * 文件本身就是一份可重新打开的方案（文件头记录行列数）
+ *
+ * 文件格式：64 字节文件头（魔数、行数、列数、每行 long 数），之后按行优先存放小端 long
+ */
+public class MappedBitStore implements BitStore, AutoCloseable {
+    private static final int MAGIC = 0x4B424D31;  // "KBM1"
+    static final int HEADER_BYTES = 64;
+    // 每段映射的大致字节数
+    private static final long BAND_BYTES = 64L << 20;
+
+    private final FileChannel channel;
+    private final FileChannel.MapMode mode;
+    private final int rows;
+    private final int cols;
+    private final int words;
+    private final long longsPerBand;  // 每段整行数对应的 long 数
+    private final long totalLongs;
+    private final AtomicReferenceArray<ByteBuffer> bands;
+
+    private MappedBitStore(FileChannel channel, int rows, int cols) {
+        this(channel, FileChannel.MapMode.READ_WRITE, rows, cols);
+    }
+
+    private MappedBitStore(FileChannel channel, FileChannel.MapMode mode, int rows, int cols) {
+        this.channel = channel;
+        this.mode = mode;
+        this.rows = rows;
+        this.cols = cols;
+        this.words = (cols + 63) >>> 6;
+        long rowsPerBand = Math.max(1, BAND_BYTES / (words * 8L));
+        this.longsPerBand = rowsPerBand * words;
+        this.totalLongs = (long) rows * words;
+        this.bands = new AtomicReferenceArray<>((int) ((totalLongs + longsPerBand - 1) / longsPerBand));
+    }
+
+    /**
+     * 新建（或覆盖）文件，内容全部清零
+     */
+    public static MappedBitStore create(Path file, int rows, int cols) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        MappedBitStore store = new MappedBitStore(channel, rows, cols);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(rows).putInt(cols).putInt(store.words);
+        header.clear();
+        channel.write(header, 0);
+        // 扩展到完整大小，新扩展部分由文件系统填零
+        channel.write(ByteBuffer.allocate(1), HEADER_BYTES + store.totalLongs * 8 - 1);
+        return store;
+    }
+
+    /**
+     * 打开已有文件
+     */
+    public static MappedBitStore open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        channel.read(header, 0);
+        header.flip();
+        if (header.remaining() < 12 || header.getInt() != MAGIC) {
+            channel.close();
+            throw new IOException("不是位棋盘文件：" + file);
+        }
+        int rows = header.getInt();
+        int cols = header.getInt();
+        MappedBitStore store = new MappedBitStore(channel, rows, cols);
+        if (channel.size() < HEADER_BYTES + store.totalLongs * 8) {
+            channel.close();
+            throw new IOException("位棋盘文件不完整：" + file);
+        }
+        return store;
+    }
+
+    /**
+     * 写时复制方式映射别的文件格式中的位棋盘部分（同样从第 64 字节起按行存放），
+     * 可读可改，改动不会写回文件；文件本身只读时退化为只读映射
+     */
+    static MappedBitStore openPrivate(Path file, int rows, int cols) throws IOException {
+        FileChannel channel;
+        FileChannel.MapMode mode = FileChannel.MapMode.PRIVATE;
+        try {
+            // 写时复制映射要求通道可写，但不会改动文件
+            channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } catch (AccessDeniedException e) {
+            channel = FileChannel.open(file, StandardOpenOption.READ);
+            mode = FileChannel.MapMode.READ_ONLY;
+        }
+        MappedBitStore store = new MappedBitStore(channel, mode, rows, cols);
+        if (channel.size() < HEADER_BYTES + store.totalLongs * 8) {
+            channel.close();
+            throw new IOException("位棋盘文件不完整：" + file);
+        }
+        return store;
+    }
+
+    public int getRows() { return rows; }
+    public int getCols() { return cols; }
+
+    @Override
+    public long getLong(long index) {
+        return band(index).getLong((int) (index % longsPerBand) << 3);
+    }
+
+    @Override
+    public void setLong(long index, long value) {
+        band(index).putLong((int) (index % longsPerBand) << 3, value);
+    }
+
+    /**
+     * 取 index 所在的映射段，首次访问时才映射
+     */
+    private ByteBuffer band(long index) {
+        int k = (int) (index / longsPerBand);
+        ByteBuffer buf = bands.get(k);
+        if (buf == null) {
+            buf = mapBand(k);
+        }
+        return buf;
+    }
+
+    private synchronized ByteBuffer mapBand(int k) {
+        ByteBuffer buf = bands.get(k);
+        if (buf != null) return buf;
+        long first = k * longsPerBand;
+        long count = Math.min(longsPerBand, totalLongs - first);
+        try {
+            MappedByteBuffer mapped = channel.map(mode,
+                    HEADER_BYTES + first * 8, count * 8);
+            buf = mapped.order(ByteOrder.LITTLE_ENDIAN);
+        } catch (IOException e) {
+            throw new UncheckedIOException("映射位棋盘文件失败", e);
+        }
+        bands.set(k, buf);
+        return buf;
+    }
+
+    @Override
+    public void flush() {
+        if (mode != FileChannel.MapMode.READ_WRITE) return;
+        for (int k = 0; k < bands.length(); k++) {
+            ByteBuffer buf = bands.get(k);
+            if (buf instanceof MappedByteBuffer) {
+                ((MappedByteBuffer) buf).force();
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        channel.close();
+    }
+}
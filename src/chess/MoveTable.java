@@ -0,0 +1,107 @@
+package chess;
+
+/**
+ * 编译后的走法表：棋盘大小 + 棋子 → 每格落点的下标偏移（CSR 形式），热循环里不再做越界判断
+ *
+ * 格子按下标 v = i * stride + j 编号（stride 不小于列数）。离上下边不足 reach 的行按到两边的距离分类，
+ * 其余行同属一类，列同理；行类 × 列类决定哪些走法留在盘内，同类格子的偏移完全相同，
+ * 因此表的大小只与 reach 有关，棋盘再大也只多两个 O(行数 + 列数) 的分类数组。
+ * 用法：p = rowClass[i] + colClass[j]，落点为 v + delta[k]（即 (i + dRow[k], j + dCol[k])），k ∈ [start[p], start[p+1])
+ */
+final class MoveTable {
+    final int rows;
+    final int cols;
+    final int stride;
+    final int[] rowClass;  // 行类编号，已乘以列类个数
+    final int[] colClass;
+    final int[] start;
+    final int[] delta;
+    final int[] dRow;
+    final int[] dCol;
+    final int maxDegree;   // 单格最多的落点数
+
+    private MoveTable(int rows, int cols, int stride, Piece piece) {
+        this.rows = rows;
+        this.cols = cols;
+        this.stride = stride;
+        int reach = piece.getReach();
+        this.rowClass = new int[rows];
+        this.colClass = new int[cols];
+        int[][] rowKinds = classify(rows, reach, rowClass);
+        int[][] colKinds = classify(cols, reach, colClass);
+        int nc = colKinds.length;
+        for (int i = 0; i < rows; i++) {
+            rowClass[i] *= nc;
+        }
+
+        int patterns = rowKinds.length * nc;
+        int moves = piece.getMoveCount();
+        int[] buf = new int[patterns * moves * 2];
+        this.start = new int[patterns + 1];
+        int n = 0, max = 0;
+        for (int r = 0; r < rowKinds.length; r++) {
+            for (int c = 0; c < nc; c++) {
+                start[r * nc + c] = n;
+                for (int k = 0; k < moves; k++) {
+                    int dx = piece.dx(k), dy = piece.dy(k);
+                    if (dx >= -rowKinds[r][0] && dx <= rowKinds[r][1]
+                            && dy >= -colKinds[c][0] && dy <= colKinds[c][1]) {
+                        buf[2 * n] = dx;
+                        buf[2 * n + 1] = dy;
+                        n++;
+                    }
+                }
+                max = Math.max(max, n - start[r * nc + c]);
+            }
+        }
+        start[patterns] = n;
+        this.delta = new int[n];
+        this.dRow = new int[n];
+        this.dCol = new int[n];
+        for (int k = 0; k < n; k++) {
+            dRow[k] = buf[2 * k];
+            dCol[k] = buf[2 * k + 1];
+            delta[k] = dRow[k] * stride + dCol[k];
+        }
+        this.maxDegree = max;
+    }
+
+    /**
+     * 下标即行优先格号（stride = cols）
+     */
+    static MoveTable compile(int rows, int cols, Piece piece) {
+        return new MoveTable(rows, cols, cols, piece);
+    }
+
+    static MoveTable compile(int rows, int cols, int stride, Piece piece) {
+        return new MoveTable(rows, cols, stride, piece);
+    }
+
+    /**
+     * 长度为 n 的一维按 (到前端距离, 到后端距离) 分类（各截断到 reach），类号写入 out，返回各类的两个距离
+     */
+    private static int[][] classify(int n, int reach, int[] out) {
+        int[] idOf = new int[(reach + 1) * (reach + 1)];
+        java.util.Arrays.fill(idOf, -1);
+        int[][] kinds = new int[Math.min(n, 2 * reach + 1)][];
+        int count = 0;
+        for (int k = 0; k < n; k++) {
+            int lo = Math.min(k, reach), hi = Math.min(n - 1 - k, reach);
+            int key = lo * (reach + 1) + hi;
+            if (idOf[key] < 0) {
+                idOf[key] = count;
+                kinds[count++] = new int[]{lo, hi};
+            }
+            out[k] = idOf[key];
+        }
+        return java.util.Arrays.copyOf(kinds, count);
+    }
+
+    /**
+     * (i, j) 的落点个数
+     */
+    int degree(int i, int j) {
+        int p = rowClass[i] + colClass[j];
+        return start[p + 1] - start[p];
+    }
+}
@@ -0,0 +1,153 @@
+package chess;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 并行极小化：把棋盘切成行带，分两批（偶数带、奇数带）用 ForkJoinPool 并行扫描
+ *
+ * 行带高度不小于棋子跨度的两倍（马为 4），同一批的两个行带之间隔着一整条行带，
+ * 攻击邻域跨不过去，所以同批移除的冗余马邻域互不重叠，读写互不干扰。
+ * 冗余马只会越来越少，每匹马检查一次即得到极小覆盖。
+ * 行带划分只由棋盘大小和种子决定，与线程数无关，因此同一种子结果可复现。
+ * 调用线程被中断时不再开始新的行带，已扫描的部分照常保留，结果仍是满覆盖
+ */
+public class ParallelMinimizer {
+    // 行带最小高度：马最多跨 2 行，相隔一条行带的两带邻域不相交；跨度更大的棋子按 2 × 跨度
+    private static final int MIN_BAND_ROWS = 4;
+    // 每个行带大约包含的格子数
+    private static final int BAND_CELLS = 1 << 16;
+
+    private final ForkJoinPool pool;
+    private final long seed;
+
+    /**
+     * 扫描 [fromRow, toRow) 行内的马，移除冗余者
+     */
+    public interface BandSweep {
+        void sweepRows(int fromRow, int toRow);
+    }
+
+    public ParallelMinimizer(long seed) {
+        this(ForkJoinPool.commonPool(), seed);
+    }
+
+    public ParallelMinimizer(ForkJoinPool pool, long seed) {
+        this.pool = pool;
+        this.seed = seed;
+    }
+
+    /**
+     * 对 rows×cols 的棋盘执行两批并行扫描
+     */
+    public void minimize(int rows, int cols, BandSweep sweep) {
+        minimize(rows, cols, 2, sweep);
+    }
+
+    /**
+     * 棋子一步最多跨 reach 行时的两批并行扫描
+     */
+    public void minimize(int rows, int cols, int reach, BandSweep sweep) {
+        int[] bounds = bandBounds(rows, cols, Math.max(MIN_BAND_ROWS, 2 * reach));
+        int bands = bounds.length - 1;
+        // 行带在池线程上扫描，等待中的调用线程也会帮着扫：调用线程被中断时置位，之后不再开始新的行带
+        Thread caller = Thread.currentThread();
+        AtomicBoolean stop = new AtomicBoolean();
+        for (int parity = 0; parity < 2 && !stop.get(); parity++) {
+            int first = parity;
+            BandTask task = new BandTask(sweep, bounds, first, bands, caller, stop);
+            pool.execute(task);
+            try {
+                task.get();
+            } catch (InterruptedException e) {
+                stop.set(true);
+                task.join();
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                // join 原样抛出扫描中的异常
+                task.join();
+            }
+        }
+    }
+
+    /**
+     * 行带边界：bounds[k]..bounds[k+1] 为第 k 带；首带高度由种子错开
+     */
+    int[] bandBounds(int rows, int cols, int minRows) {
+        int height = Math.max(minRows, BAND_CELLS / Math.max(1, cols));
+        int offset = (int) Math.floorMod(mix(seed), (long) height);
+        int firstEnd = Math.min(rows, offset == 0 ? height : offset);
+        if (firstEnd < minRows) {
+            firstEnd = Math.min(rows, firstEnd + height);
+        }
+        int count = 2 + Math.max(0, rows - firstEnd) / height;
+        int[] bounds = new int[count + 1];
+        int n = 0;
+        bounds[n++] = 0;
+        bounds[n++] = firstEnd;
+        int row = firstEnd;
+        while (row < rows) {
+            int next = row + height;
+            // 尾带过矮时并入前一带
+            if (rows - next < minRows) {
+                next = rows;
+            }
+            bounds[n++] = next;
+            row = next;
+        }
+        return java.util.Arrays.copyOf(bounds, n);
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * 处理编号为 first, first+2, first+4 ... 的行带
+     */
+    private static class BandTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final BandSweep sweep;
+        private final int[] bounds;
+        private final int first;
+        private final int end;
+        private final Thread caller;
+        private final AtomicBoolean stop;
+
+        BandTask(BandSweep sweep, int[] bounds, int first, int end, Thread caller, AtomicBoolean stop) {
+            this.sweep = sweep;
+            this.bounds = bounds;
+            this.first = first;
+            this.end = end;
+            this.caller = caller;
+            this.stop = stop;
+        }
+
+        @Override
+        protected void compute() {
+            int count = (end - first + 1) / 2;
+            if (count <= 1) {
+                if (first < end && !stopped()) {
+                    sweep.sweepRows(bounds[first], bounds[first + 1]);
+                }
+                return;
+            }
+            // 按带数对半拆分，保持奇偶性
+            int mid = first + (count / 2) * 2;
+            invokeAll(new BandTask(sweep, bounds, first, mid, caller, stop),
+                    new BandTask(sweep, bounds, mid, end, caller, stop));
+        }
+
+        /**
+         * 调用线程自己扫描时中断标记仍在；在等待中被中断时由 stop 转告
+         */
+        private boolean stopped() {
+            return stop.get() || caller.isInterrupted();
+        }
+    }
+}
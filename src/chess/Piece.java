@@ -0,0 +1,145 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 跳子：由若干 (a, b) 跳步组成，每种跳步取全部 8 个对称方向（行列互换后走法不变，转置仍是有效覆盖）
+ *
+ * 马 = (1,2)，王 = (0,1)+(1,1)，骆驼 = (1,3)，斑马 = (2,3)。
+ * 规格串形如 "1,2" 或 "0,1+1,1"，用于文件头、缓存键和命令行
+ */
+public final class Piece {
+    // 单个跳步坐标的上限，位棋盘按不超过一个字的位移计算攻击
+    public static final int MAX_LEAP = 15;
+
+    public static final Piece KNIGHT = new Piece("马", new int[][]{{1, 2}});
+    public static final Piece KING = new Piece("王", new int[][]{{0, 1}, {1, 1}});
+    public static final Piece CAMEL = new Piece("骆驼", new int[][]{{1, 3}});
+    public static final Piece ZEBRA = new Piece("斑马", new int[][]{{2, 3}});
+
+    private static final Piece[] PRESETS = {KNIGHT, KING, CAMEL, ZEBRA};
+    private static final String[] PRESET_NAMES = {"knight", "king", "camel", "zebra"};
+
+    private final String label;
+    private final String spec;
+    private final int[][] moves;  // 全部走法 (dx, dy)，按字典序排列、无重复
+    private final int reach;      // 一步最多跨越的行（列）数
+
+    private Piece(String label, int[][] leaps) {
+        int[][] canonical = new int[leaps.length][];
+        for (int k = 0; k < leaps.length; k++) {
+            int a = leaps[k][0], b = leaps[k][1];
+            if (a < 0 || b < 0 || (a == 0 && b == 0) || Math.max(a, b) > MAX_LEAP) {
+                throw new IllegalArgumentException("无效跳步 (" + a + "," + b + ")，坐标须在 0.." + MAX_LEAP
+                        + " 且不全为 0");
+            }
+            canonical[k] = new int[]{Math.min(a, b), Math.max(a, b)};
+        }
+        Arrays.sort(canonical, (p, q) -> p[0] != q[0] ? Integer.compare(p[0], q[0]) : Integer.compare(p[1], q[1]));
+        StringBuilder sb = new StringBuilder();
+        List<int[]> list = new ArrayList<>();
+        int max = 0;
+        for (int k = 0; k < canonical.length; k++) {
+            int a = canonical[k][0], b = canonical[k][1];
+            if (k > 0 && a == canonical[k - 1][0] && b == canonical[k - 1][1]) continue;
+            if (sb.length() > 0) sb.append('+');
+            sb.append(a).append(',').append(b);
+            max = Math.max(max, b);
+            int[][] eight = {{a, b}, {a, -b}, {-a, b}, {-a, -b}, {b, a}, {b, -a}, {-b, a}, {-b, -a}};
+            for (int[] m : eight) {
+                boolean seen = false;
+                for (int[] old : list) {
+                    if (old[0] == m[0] && old[1] == m[1]) {
+                        seen = true;
+                        break;
+                    }
+                }
+                if (!seen) list.add(m);
+            }
+        }
+        list.sort((p, q) -> p[0] != q[0] ? Integer.compare(p[0], q[0]) : Integer.compare(p[1], q[1]));
+        this.spec = sb.toString();
+        this.label = label != null ? label : "(" + spec.replace("+", ")+(") + ")跳子";
+        this.moves = list.toArray(new int[0][]);
+        this.reach = max;
+    }
+
+    /**
+     * 单一跳步的 (a, b) 跳子，与预置棋子相同时返回预置对象
+     */
+    public static Piece leaper(int a, int b) {
+        return canonical(new Piece(null, new int[][]{{a, b}}));
+    }
+
+    /**
+     * 解析棋子：预置名（knight/king/camel/zebra，或中文名）或规格串（如 "1,3"、"0,1+1,1"）
+     */
+    public static Piece parse(String text) {
+        String s = text.trim();
+        for (int k = 0; k < PRESETS.length; k++) {
+            if (s.equalsIgnoreCase(PRESET_NAMES[k]) || s.equals(PRESETS[k].label)) {
+                return PRESETS[k];
+            }
+        }
+        String[] parts = s.split("\\+");
+        int[][] leaps = new int[parts.length][];
+        for (int k = 0; k < parts.length; k++) {
+            String[] ab = parts[k].split(",");
+            try {
+                if (ab.length != 2) throw new NumberFormatException(parts[k]);
+                leaps[k] = new int[]{Integer.parseInt(ab[0].trim()), Integer.parseInt(ab[1].trim())};
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("无法识别的棋子：" + text);
+            }
+        }
+        return canonical(new Piece(null, leaps));
+    }
+
+    private static Piece canonical(Piece piece) {
+        for (Piece p : PRESETS) {
+            if (p.spec.equals(piece.spec)) return p;
+        }
+        return piece;
+    }
+
+    /**
+     * 预置棋子：马、王、骆驼、斑马
+     */
+    public static Piece[] presets() {
+        return PRESETS.clone();
+    }
+
+    public String getLabel() { return label; }
+    public String getSpec() { return spec; }
+    public int getReach() { return reach; }
+    public int getMoveCount() { return moves.length; }
+
+    public boolean isKnight() {
+        return spec.equals(KNIGHT.spec);
+    }
+
+    /**
+     * 第 k 个走法 {dx, dy}（副本）
+     */
+    public int[] getMove(int k) {
+        return moves[k].clone();
+    }
+
+    int dx(int k) { return moves[k][0]; }
+    int dy(int k) { return moves[k][1]; }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Piece && ((Piece) o).spec.equals(spec);
+    }
+
+    @Override
+    public int hashCode() {
+        return spec.hashCode();
+    }
+
+    @Override
+    public String toString() { return label; }
+}
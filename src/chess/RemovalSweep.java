@@ -0,0 +1,109 @@
+package chess;
+
+/**
+ * 迭代式回溯移除：按行优先顺序逐格试探冗余马，
+ * 不递归、每步不分配对象，可在任意格暂停后续跑
+ */
+public class RemovalSweep {
+    private final ChessboardCover cover;
+    private final ChessboardCover.DemoCallback callback;  // 为 null 时直接判断冗余
+    private final int cols;
+    private final long totalSize;
+    private long nextIndex;
+    private volatile boolean pauseRequested;
+
+    public RemovalSweep(ChessboardCover cover) {
+        this(cover, null);
+    }
+
+    public RemovalSweep(ChessboardCover cover, ChessboardCover.DemoCallback callback) {
+        this.cover = cover;
+        this.callback = callback;
+        this.cols = cover.getCols();
+        this.totalSize = (long) cover.getRows() * cols;
+    }
+
+    /**
+     * 从第 idx 格（行优先编号）开始
+     */
+    public void resumeFrom(long idx) {
+        this.nextIndex = idx;
+    }
+
+    public long getNextIndex() { return nextIndex; }
+
+    public boolean isFinished() { return nextIndex >= totalSize; }
+
+    /**
+     * 请求在当前格处理完后暂停（可跨线程调用）
+     */
+    public void requestPause() {
+        pauseRequested = true;
+    }
+
+    /**
+     * 跑到棋盘末尾
+     * @return 是否因线程中断而停止
+     */
+    public boolean run() {
+        return runUntil(totalSize);
+    }
+
+    /**
+     * 跑到第 endIndex 格之前（不含）暂停
+     * @return 是否因线程中断而停止
+     */
+    public boolean runUntil(long endIndex) {
+        pauseRequested = false;
+        SolverMetrics m = cover.activeMetrics();
+        long start = m != null ? m.begin() : 0;
+        boolean interrupted = sweep(Math.min(endIndex, totalSize), m != null && m.hasListeners() ? m : null);
+        if (m != null) m.end(SolverMetrics.Phase.REMOVAL_SWEEP, start);
+        return interrupted;
+    }
+
+    /**
+     * 逐格试探，每走完一行汇报一次进度
+     */
+    private boolean sweep(long end, SolverMetrics progress) {
+        boolean report = callback != null || progress != null;
+        while (nextIndex < end) {
+            if (Thread.currentThread().isInterrupted()) {
+                return true;
+            }
+            if (pauseRequested) {
+                return false;
+            }
+            step((int) (nextIndex / cols), (int) (nextIndex % cols));
+            nextIndex++;
+            if (report && (nextIndex % cols == 0 || nextIndex == totalSize)) {
+                double fraction = nextIndex / (double) totalSize;
+                if (callback != null) callback.onProgress(fraction);
+                if (progress != null) progress.progress(SolverMetrics.Phase.REMOVAL_SWEEP, fraction);
+            }
+        }
+        return Thread.currentThread().isInterrupted();
+    }
+
+    /**
+     * 试探单个格子
+     */
+    private void step(int i, int j) {
+        if (!cover.hasHorse(i, j)) {
+            return;
+        }
+        if (callback == null) {
+            if (cover.isRedundant(i, j)) {
+                cover.removeHorse(i, j);
+            }
+            return;
+        }
+        cover.removeHorse(i, j);
+        callback.onCellChanged(i, j);
+
+        if (!cover.isFullCover()) {
+            cover.placeHorse(i, j);
+            callback.onCellChanged(i, j);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package chess;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 覆盖方案缓存：按（棋盘大小, 策略, 棋子）保存，R×C 与 C×R 共用一项（存较窄的方向，取时转置）
+ * 并行极小覆盖的结果随种子不同，键里另带种子
+ * 内存中按最近使用淘汰，磁盘上每项一个二进制方案文件（SolutionFile 格式），用到时才读取
+ * 只有内存索引在锁内，读写磁盘在锁外，多个线程的未命中可以同时读盘
+ */
+public class SolutionCache {
+    // 未指定种子时按 ChessboardCover 的默认种子
+    private static final long DEFAULT_SEED = 1L;
+
+    private final Path dir;
+    private final long maxCells;  // 内存中最多保留的格子总数
+    private long cachedCells;     // 以下两项由 memory 的锁保护
+    private final LinkedHashMap<String, BitboardCover> memory = new LinkedHashMap<>(16, 0.75f, true);
+
+    public SolutionCache(Path dir) {
+        this(dir, 64L << 20);
+    }
+
+    public SolutionCache(Path dir, long maxCells) {
+        this.dir = dir;
+        this.maxCells = maxCells;
+    }
+
+    /**
+     * 查找缓存，未命中返回 null；返回的是副本，可直接修改
+     */
+    public BitboardCover get(int rows, int cols, ChessboardCover.Strategy strategy) {
+        return get(rows, cols, strategy, Piece.KNIGHT);
+    }
+
+    public BitboardCover get(int rows, int cols, ChessboardCover.Strategy strategy, Piece piece) {
+        return get(rows, cols, strategy, piece, DEFAULT_SEED);
+    }
+
+    /**
+     * seed 只对并行极小覆盖有意义，其他策略忽略
+     */
+    public BitboardCover get(int rows, int cols, ChessboardCover.Strategy strategy, Piece piece, long seed) {
+        boolean transposed = rows > cols;
+        String key = key(rows, cols, strategy, piece, seed);
+        BitboardCover hit;
+        synchronized (memory) {
+            hit = memory.get(key);
+        }
+        if (hit == null) {
+            hit = load(key);
+            if (hit == null) return null;
+            synchronized (memory) {
+                remember(key, hit);
+            }
+        }
+        // 内存中的项不会被修改，锁外复制即可
+        return transposed ? hit.transpose() : hit.copy();
+    }
+
+    /**
+     * 写入缓存（内存与磁盘）
+     */
+    public void put(int rows, int cols, ChessboardCover.Strategy strategy, BitboardCover solution) {
+        put(rows, cols, strategy, Piece.KNIGHT, solution);
+    }
+
+    public void put(int rows, int cols, ChessboardCover.Strategy strategy, Piece piece, BitboardCover solution) {
+        put(rows, cols, strategy, piece, DEFAULT_SEED, solution);
+    }
+
+    public void put(int rows, int cols, ChessboardCover.Strategy strategy, Piece piece, long seed,
+                    BitboardCover solution) {
+        String key = key(rows, cols, strategy, piece, seed);
+        BitboardCover canonical = rows > cols ? solution.transpose() : solution.copy();
+        synchronized (memory) {
+            remember(key, canonical);
+        }
+        store(key, strategy, canonical);
+    }
+
+    /**
+     * 马沿用原来的键，其他棋子追加规格串（"," 与 "+" 换成 "-" 和 "_"），并行极小覆盖再追加种子
+     */
+    private static String key(int rows, int cols, ChessboardCover.Strategy strategy, Piece piece, long seed) {
+        String key = Math.min(rows, cols) + "x" + Math.max(rows, cols) + "_" + strategy.name();
+        if (!piece.isKnight()) {
+            key += "_" + piece.getSpec().replace(',', '-').replace('+', '_');
+        }
+        if (strategy == ChessboardCover.Strategy.PARALLEL) {
+            key += "_s" + seed;
+        }
+        return key;
+    }
+
+    private void remember(String key, BitboardCover solution) {
+        BitboardCover old = memory.put(key, solution);
+        if (old != null) cachedCells -= cells(old);
+        cachedCells += cells(solution);
+        Iterator<Map.Entry<String, BitboardCover>> it = memory.entrySet().iterator();
+        while (cachedCells > maxCells && it.hasNext()) {
+            Map.Entry<String, BitboardCover> eldest = it.next();
+            if (eldest.getValue() == solution) continue;
+            cachedCells -= cells(eldest.getValue());
+            it.remove();
+        }
+    }
+
+    private static long cells(BitboardCover bb) {
+        return (long) bb.getRows() * bb.getCols();
+    }
+
+    /**
+     * 从磁盘读取，文件不存在、损坏或校验不通过时视为未命中
+     */
+    private BitboardCover load(String key) {
+        Path file = dir.resolve(key + ".ksf");
+        if (!Files.isRegularFile(file)) return null;
+        try {
+            return SolutionFile.read(file);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 写盘（SolutionFile 先写临时文件再改名）；写盘失败只影响缓存本身
+     */
+    private void store(String key, ChessboardCover.Strategy strategy, BitboardCover bb) {
+        try {
+            SolutionFile.write(dir.resolve(key + ".ksf"), bb, strategy);
+        } catch (IOException e) {
+            // 缓存写不进去不影响求解结果
+        }
+    }
+}
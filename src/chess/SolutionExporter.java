@@ -0,0 +1,354 @@
+package chess;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import javax.swing.*;
+
+/**
+ * 方案导出器
+ */
+public class SolutionExporter {
+    private int rows;
+    private int cols;
+    private int[][] board;
+    private String strategyLabel;  // 求解方式，为 null 时不输出
+    private ChessboardCover.Strategy strategy;  // 写入二进制文件头，为 null 时记为 MINIMAL
+    private Piece piece = Piece.KNIGHT;
+    private BoardMask mask;  // 不规则棋盘的形状，为 null 时是完整矩形
+    // 超过该格数时导出对话框不再展示全文，只提示保存到文件
+    private static final long DIALOG_MAX_CELLS = 250_000;
+    private static final char[] CELL_0 = "0   ".toCharArray();
+    private static final char[] CELL_1 = "1   ".toCharArray();
+    private static final char[] CELL_HOLE = "#   ".toCharArray();
+
+    public SolutionExporter(int rows, int cols, int[][] board) {
+        this(rows, cols, board, (String) null);
+    }
+
+    public SolutionExporter(int rows, int cols, int[][] board, String strategyLabel) {
+        this.rows = rows;
+        this.cols = cols;
+        this.board = board;
+        this.strategyLabel = strategyLabel;
+    }
+
+    public SolutionExporter(int rows, int cols, int[][] board, ChessboardCover.Strategy strategy) {
+        this(rows, cols, board, strategy.getLabel());
+        this.strategy = strategy;
+    }
+
+    /**
+     * 设置棋子（默认马），非马时报告中注明并写入二进制文件头
+     */
+    public void setPiece(Piece piece) {
+        this.piece = piece;
+    }
+
+    /**
+     * 设置棋盘形状（null 为完整矩形），洞在矩阵中记为 '#'；二进制文件只记录马
+     */
+    public void setMask(BoardMask mask) {
+        this.mask = mask;
+    }
+
+    /**
+     * 生成格式化报告（小棋盘用，大棋盘请用 writeReport 直接写出）
+     */
+    public String generateReport() {
+        StringWriter out = new StringWriter();
+        try {
+            writeReport(out);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);  // StringWriter 不会抛出
+        }
+        return out.toString();
+    }
+
+    /**
+     * 流式写出格式化报告，内容与 generateReport 相同；逐行写出，不做逐格格式化
+     */
+    public void writeReport(Writer out) throws IOException {
+        out.write("=============== 极小满覆盖方案 ===============\n");
+        out.write("棋盘大小：" + rows + " 行 × " + cols + " 列\n");
+        if (mask != null) {
+            out.write("在盘格子：" + mask.getActiveCount() + "（不规则棋盘）\n");
+        }
+        if (strategyLabel != null) {
+            out.write("求解方式：" + strategyLabel + "\n");
+        }
+        if (!piece.isKnight()) {
+            out.write("棋子：" + piece.getLabel() + "（跳步 " + piece.getSpec() + "）\n");
+        }
+        out.write("----------------------------------------\n\n");
+
+        // 坐标列表
+        out.write("【坐标列表】\n");
+        char[] buf = new char[64];
+        int horseCount = 0;
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                if (board[i][j] == 1) {
+                    horseCount++;
+                    int n = append(buf, 0, "  马 ");
+                    n = appendInt(buf, n, horseCount);
+                    n = append(buf, n, ": r");
+                    n = appendInt(buf, n, i + 1);
+                    n = append(buf, n, " c");
+                    n = appendInt(buf, n, j + 1);
+                    buf[n++] = '\n';
+                    out.write(buf, 0, n);
+                }
+            }
+        }
+        out.write("\n总计：" + horseCount + " 匹马\n\n");
+
+        // 矩阵形式，一行拼好后整行写出
+        out.write(mask != null ? "【矩阵形式】（1=有马, 0=无马, #=不在棋盘上）\n" : "【矩阵形式】（1=有马, 0=无马）\n");
+        char[] line = new char[16 + cols * 12];  // 表头每列最多 "c" + 10 位数字 + 补位
+        int n = append(line, 0, "   ");
+        for (int j = 0; j < cols; j++) {
+            line[n++] = 'c';
+            n = appendPadded(line, n, j + 1, 3);
+        }
+        line[n++] = '\n';
+        out.write(line, 0, n);
+
+        for (int i = 0; i < rows; i++) {
+            line[0] = 'r';
+            n = appendPadded(line, 1, i + 1, 2);
+            int[] row = board[i];
+            for (int j = 0; j < cols; j++) {
+                char[] cell = row[j] == 1 ? CELL_1 : mask != null && !mask.isActive(i, j) ? CELL_HOLE : CELL_0;
+                System.arraycopy(cell, 0, line, n, 4);
+                n += 4;
+            }
+            line[n++] = '\n';
+            out.write(line, 0, n);
+        }
+
+        out.write("==========================================\n");
+    }
+
+    /**
+     * 紧凑矩阵：每行一串 0/1（洞为 '#'），不带表头和坐标列表；可用 BoardMask.parse 读回形状
+     */
+    public void writeMatrix(Writer out) throws IOException {
+        char[] line = new char[cols + 1];
+        line[cols] = '\n';
+        for (int i = 0; i < rows; i++) {
+            int[] row = board[i];
+            for (int j = 0; j < cols; j++) {
+                line[j] = row[j] == 1 ? '1' : mask != null && !mask.isActive(i, j) ? '#' : '0';
+            }
+            out.write(line);
+        }
+    }
+
+    private static int append(char[] buf, int pos, String s) {
+        s.getChars(0, s.length(), buf, pos);
+        return pos + s.length();
+    }
+
+    /**
+     * 写入非负整数，返回新的写入位置
+     */
+    private static int appendInt(char[] buf, int pos, int value) {
+        int end = pos + digits(value);
+        int p = end;
+        do {
+            buf[--p] = (char) ('0' + value % 10);
+            value /= 10;
+        } while (value > 0);
+        return end;
+    }
+
+    /**
+     * 等价于 %-{width}d：左对齐，不足补空格
+     */
+    private static int appendPadded(char[] buf, int pos, int value, int width) {
+        int end = appendInt(buf, pos, value);
+        while (end - pos < width) {
+            buf[end++] = ' ';
+        }
+        return end;
+    }
+
+    private static int digits(int value) {
+        int d = 1;
+        while (value >= 10) {
+            value /= 10;
+            d++;
+        }
+        return d;
+    }
+
+    /**
+     * 打印到控制台
+     */
+    public void printToConsole() {
+        try {
+            Writer out = new BufferedWriter(new OutputStreamWriter(System.out), 1 << 16);
+            writeReport(out);
+            out.write(System.lineSeparator());
+            out.flush();
+        } catch (IOException e) {
+            System.err.println("输出失败：" + e.getMessage());
+        }
+    }
+
+    /**
+     * 显示导出对话框
+     */
+    public void showExportDialog(JFrame parentFrame) {
+        boolean large = (long) rows * cols > DIALOG_MAX_CELLS;
+        String content = large
+                ? "棋盘较大（" + rows + " 行 × " + cols + " 列），请保存到文件查看完整方案。\n"
+                : generateReport();
+
+        JTextArea textArea = new JTextArea(content);
+        textArea.setFont(new javax.swing.plaf.FontUIResource("宋体", java.awt.Font.PLAIN, 13));
+        textArea.setEditable(false);
+        textArea.setMargin(new java.awt.Insets(10, 10, 10, 10));
+        textArea.setLineWrap(true);
+        textArea.setWrapStyleWord(true);
+
+        JScrollPane scrollPane = new JScrollPane(textArea);
+        scrollPane.setPreferredSize(new java.awt.Dimension(500, 400));
+
+        JPanel dialogPanel = new JPanel(new java.awt.BorderLayout());
+        dialogPanel.add(scrollPane, java.awt.BorderLayout.CENTER);
+
+        JPanel buttonPanel = new JPanel();
+        JButton saveBtn = new JButton("保存到文件");
+        saveBtn.addActionListener(e -> {
+            if (large) {
+                saveToFile(parentFrame);
+            } else {
+                saveToFile(parentFrame, content);
+            }
+        });
+        buttonPanel.add(saveBtn);
+        JButton binaryBtn = new JButton("保存为二进制");
+        binaryBtn.addActionListener(e -> saveBinaryToFile(parentFrame));
+        buttonPanel.add(binaryBtn);
+        dialogPanel.add(buttonPanel, java.awt.BorderLayout.SOUTH);
+
+        JOptionPane.showMessageDialog(parentFrame, dialogPanel, "导出极小满覆盖方案",
+                JOptionPane.INFORMATION_MESSAGE);
+    }
+
+    /**
+     * 保存到文件
+     */
+    public void saveToFile(JFrame parentFrame, String content) {
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle("保存极小满覆盖方案");
+        fileChooser.setSelectedFile(new File("极小满覆盖方案_" + System.currentTimeMillis() + ".txt"));
+
+        int result = fileChooser.showSaveDialog(parentFrame);
+        if (result == JFileChooser.APPROVE_OPTION) {
+            try {
+                File file = fileChooser.getSelectedFile();
+                java.nio.file.Files.write(
+                    file.toPath(),
+                    content.getBytes(java.nio.charset.StandardCharsets.UTF_8)
+                );
+                JOptionPane.showMessageDialog(parentFrame,
+                    "方案已成功保存到：\n" + file.getAbsolutePath(),
+                    "保存成功",
+                    JOptionPane.INFORMATION_MESSAGE);
+            } catch (Exception e) {
+                JOptionPane.showMessageDialog(parentFrame,
+                    "保存失败：" + e.getMessage(),
+                    "错误",
+                    JOptionPane.ERROR_MESSAGE);
+            }
+        }
+    }
+
+    /**
+     * 选择文件后流式保存完整报告（不在内存中拼整份文本）
+     */
+    public void saveToFile(JFrame parentFrame) {
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle("保存极小满覆盖方案");
+        fileChooser.setSelectedFile(new File("极小满覆盖方案_" + System.currentTimeMillis() + ".txt"));
+
+        int result = fileChooser.showSaveDialog(parentFrame);
+        if (result == JFileChooser.APPROVE_OPTION) {
+            try {
+                File file = fileChooser.getSelectedFile();
+                saveToFile(file.getPath());
+                JOptionPane.showMessageDialog(parentFrame,
+                    "方案已成功保存到：\n" + file.getAbsolutePath(),
+                    "保存成功",
+                    JOptionPane.INFORMATION_MESSAGE);
+            } catch (Exception e) {
+                JOptionPane.showMessageDialog(parentFrame,
+                    "保存失败：" + e.getMessage(),
+                    "错误",
+                    JOptionPane.ERROR_MESSAGE);
+            }
+        }
+    }
+
+    /**
+     * 直接保存到指定路径
+     */
+    public void saveToFile(String filePath) throws Exception {
+        try (Writer out = Files.newBufferedWriter(Paths.get(filePath), StandardCharsets.UTF_8)) {
+            writeReport(out);
+        }
+    }
+
+    /**
+     * 选择文件后保存为二进制方案（可用 ChessboardCover.load 载回）
+     */
+    public void saveBinaryToFile(JFrame parentFrame) {
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle("保存二进制方案");
+        fileChooser.setSelectedFile(new File("极小满覆盖方案_" + System.currentTimeMillis() + ".ksf"));
+
+        int result = fileChooser.showSaveDialog(parentFrame);
+        if (result == JFileChooser.APPROVE_OPTION) {
+            try {
+                File file = fileChooser.getSelectedFile();
+                saveBinaryToFile(file.getPath());
+                JOptionPane.showMessageDialog(parentFrame,
+                    "方案已成功保存到：\n" + file.getAbsolutePath(),
+                    "保存成功",
+                    JOptionPane.INFORMATION_MESSAGE);
+            } catch (Exception e) {
+                JOptionPane.showMessageDialog(parentFrame,
+                    "保存失败：" + e.getMessage(),
+                    "错误",
+                    JOptionPane.ERROR_MESSAGE);
+            }
+        }
+    }
+
+    /**
+     * 保存为二进制方案到指定路径（格式见 SolutionFile）
+     */
+    public void saveBinaryToFile(String filePath) throws IOException {
+        SolutionFile.write(Paths.get(filePath), BitboardCover.fromIntBoard(rows, cols, board, piece),
+                strategy != null ? strategy : ChessboardCover.Strategy.MINIMAL);
+    }
+
+    /**
+     * 只保存紧凑矩阵到指定路径
+     */
+    public void saveMatrixToFile(String filePath) throws IOException {
+        try (Writer out = Files.newBufferedWriter(Paths.get(filePath), StandardCharsets.UTF_8)) {
+            writeMatrix(out);
+        }
+    }
+}
+
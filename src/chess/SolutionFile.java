@@ -0,0 +1,251 @@
+package chess;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * 二进制方案文件：可原样载回，不必重新求解
+ *
+ * 文件格式（小端）：64 字节文件头，之后按行优先存放位棋盘（每行 words 个 long，与 MappedBitStore 相同，
+ * 所以大文件可以直接映射）。
+ * 文件头：魔数 "KSF1"、版本、行数、列数、每行 long 数、棋盘部分的 CRC32C、马数（long）、
+ * 求解策略名（1 字节长度 + 最多 15 字节 ASCII）、棋子规格（偏移 48，1 字节长度 + 最多 15 字节，见 Piece）。
+ * 版本 1 的文件没有棋子字段（策略名最多 31 字节），按马读入。
+ */
+public class SolutionFile {
+    private static final int MAGIC = 0x4B534631;  // "KSF1"
+    private static final int VERSION = 2;
+    static final int HEADER_BYTES = MappedBitStore.HEADER_BYTES;
+    private static final int STRATEGY_OFFSET = 32;
+    private static final int PIECE_OFFSET = 48;
+    private static final int MAX_STRATEGY_BYTES = PIECE_OFFSET - STRATEGY_OFFSET - 1;
+    private static final int MAX_PIECE_BYTES = HEADER_BYTES - PIECE_OFFSET - 1;
+    private static final int V1_MAX_STRATEGY_BYTES = HEADER_BYTES - STRATEGY_OFFSET - 1;
+    // 读写棋盘部分时每次搬运的字节数
+    private static final int CHUNK_BYTES = 1 << 20;
+
+    private SolutionFile() {
+    }
+
+    /**
+     * 文件头
+     */
+    public static final class Header {
+        private final int rows;
+        private final int cols;
+        private final int words;
+        private final int checksum;
+        private final long knights;
+        private final ChessboardCover.Strategy strategy;  // 不认识的策略名为 null
+        private final Piece piece;
+
+        Header(int rows, int cols, int words, int checksum, long knights, ChessboardCover.Strategy strategy,
+               Piece piece) {
+            this.rows = rows;
+            this.cols = cols;
+            this.words = words;
+            this.checksum = checksum;
+            this.knights = knights;
+            this.strategy = strategy;
+            this.piece = piece;
+        }
+
+        public int getRows() { return rows; }
+        public int getCols() { return cols; }
+        public int getChecksum() { return checksum; }
+        public long getKnights() { return knights; }
+        public ChessboardCover.Strategy getStrategy() { return strategy; }
+        public Piece getPiece() { return piece; }
+
+        long payloadBytes() {
+            return (long) rows * words * 8;
+        }
+    }
+
+    /**
+     * 写出方案：先写临时文件再改名，不会留下半截文件
+     */
+    public static void write(Path file, BitboardCover bb, ChessboardCover.Strategy strategy) throws IOException {
+        byte[] spec = bb.getPiece().getSpec().getBytes(StandardCharsets.US_ASCII);
+        if (spec.length > MAX_PIECE_BYTES) {
+            throw new IOException("棋子规格过长，无法写入方案文件：" + bb.getPiece().getSpec());
+        }
+        Path dir = file.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                int rows = bb.getRows(), words = bb.getWordsPerRow();
+                CRC32C crc = new CRC32C();
+                long knights = 0;
+                long position = HEADER_BYTES;
+                ByteBuffer buf = ByteBuffer.allocateDirect(CHUNK_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+                for (int i = 0; i < rows; i++) {
+                    for (int w = 0; w < words; w++) {
+                        long word = bb.getWord(i, w);
+                        knights += Long.bitCount(word);
+                        buf.putLong(word);
+                        if (!buf.hasRemaining()) {
+                            position += drain(channel, buf, position, crc);
+                        }
+                    }
+                }
+                drain(channel, buf, position, crc);
+
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+                header.putInt(MAGIC).putInt(VERSION).putInt(rows).putInt(bb.getCols()).putInt(words)
+                        .putInt((int) crc.getValue()).putLong(knights);
+                byte[] name = strategy.name().getBytes(StandardCharsets.US_ASCII);
+                header.put((byte) Math.min(name.length, MAX_STRATEGY_BYTES));
+                header.put(name, 0, Math.min(name.length, MAX_STRATEGY_BYTES));
+                header.position(PIECE_OFFSET);
+                header.put((byte) spec.length).put(spec);
+                header.clear();
+                while (header.hasRemaining()) {
+                    channel.write(header, header.position());
+                }
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private static int drain(FileChannel channel, ByteBuffer buf, long position, CRC32C crc) throws IOException {
+        buf.flip();
+        int n = buf.remaining();
+        crc.update(buf.duplicate());
+        while (buf.hasRemaining()) {
+            channel.write(buf, position + buf.position());
+        }
+        buf.clear();
+        return n;
+    }
+
+    /**
+     * 只读文件头
+     */
+    public static Header readHeader(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return readHeader(channel, file);
+        }
+    }
+
+    private static Header readHeader(FileChannel channel, Path file) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        while (header.hasRemaining() && channel.read(header, header.position()) > 0) {
+            // 读满文件头
+        }
+        header.flip();
+        if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC) {
+            throw new IOException("不是方案文件：" + file);
+        }
+        int version = header.getInt();
+        if (version != 1 && version != VERSION) {
+            throw new IOException("不支持的方案文件版本 " + version + "：" + file);
+        }
+        int rows = header.getInt();
+        int cols = header.getInt();
+        int words = header.getInt();
+        int checksum = header.getInt();
+        long knights = header.getLong();
+        int nameLength = Math.min(header.get() & 0xFF, version == 1 ? V1_MAX_STRATEGY_BYTES : MAX_STRATEGY_BYTES);
+        byte[] name = new byte[nameLength];
+        header.get(name);
+        if (rows < 1 || cols < 1 || words != (cols + 63) >>> 6) {
+            throw new IOException("方案文件头损坏：" + file);
+        }
+        Piece piece = Piece.KNIGHT;
+        if (version >= 2) {
+            header.position(PIECE_OFFSET);
+            byte[] spec = new byte[Math.min(header.get() & 0xFF, MAX_PIECE_BYTES)];
+            header.get(spec);
+            try {
+                piece = Piece.parse(new String(spec, StandardCharsets.US_ASCII));
+            } catch (IllegalArgumentException e) {
+                throw new IOException("方案文件头损坏：" + file);
+            }
+        }
+        Header h = new Header(rows, cols, words, checksum, knights,
+                parseStrategy(new String(name, StandardCharsets.US_ASCII)), piece);
+        if (channel.size() < HEADER_BYTES + h.payloadBytes()) {
+            throw new IOException("方案文件不完整：" + file);
+        }
+        return h;
+    }
+
+    private static ChessboardCover.Strategy parseStrategy(String name) {
+        for (ChessboardCover.Strategy s : ChessboardCover.Strategy.values()) {
+            if (s.name().equals(name)) return s;
+        }
+        return null;
+    }
+
+    /**
+     * 读入堆内位棋盘，同时校验 CRC 和马数
+     */
+    public static BitboardCover read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            Header h = readHeader(channel, file);
+            BitboardCover bb = new BitboardCover(h.rows, h.cols, h.piece);
+            scan(channel, h, file, bb);
+            return bb;
+        }
+    }
+
+    /**
+     * 不载入棋盘，只流式校验 CRC 和马数
+     */
+    public static Header verify(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            Header h = readHeader(channel, file);
+            scan(channel, h, file, null);
+            return h;
+        }
+    }
+
+    /**
+     * 顺序读一遍棋盘部分，target 不为 null 时顺带写入
+     */
+    private static void scan(FileChannel channel, Header h, Path file, BitboardCover target) throws IOException {
+        CRC32C crc = new CRC32C();
+        long knights = 0;
+        long position = HEADER_BYTES;
+        long remaining = h.payloadBytes();
+        long index = 0;
+        ByteBuffer buf = ByteBuffer.allocateDirect(CHUNK_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        while (remaining > 0) {
+            buf.clear();
+            buf.limit((int) Math.min(buf.capacity(), remaining));
+            while (buf.hasRemaining()) {
+                if (channel.read(buf, position + buf.position()) < 0) {
+                    throw new IOException("方案文件不完整：" + file);
+                }
+            }
+            buf.flip();
+            crc.update(buf.duplicate());
+            position += buf.remaining();
+            remaining -= buf.remaining();
+            while (buf.hasRemaining()) {
+                long word = buf.getLong();
+                knights += Long.bitCount(word);
+                if (target != null) {
+                    target.setWord((int) (index / h.words), (int) (index % h.words), word);
+                }
+                index++;
+            }
+        }
+        if ((int) crc.getValue() != h.checksum || knights != h.knights) {
+            throw new IOException("方案文件校验失败：" + file);
+        }
+    }
+}
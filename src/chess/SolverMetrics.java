@@ -0,0 +1,214 @@
+package chess;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * 求解统计：LongAdder 计数器 + 分阶段计时，可挂监听器看实时进度，也可注册为 JMX MBean
+ *
+ * ChessboardCover 未设置统计对象（或统计已关闭）时只多一次判空，几乎没有开销；
+ * 计数按遍或按行累加，不在每格上记账
+ */
+public class SolverMetrics implements SolverMetricsMXBean {
+    private static final String OBJECT_NAME = "chess:type=SolverMetrics";
+    private static SolverMetrics shared;
+
+    private final LongAdder[] counters = newAdders(Counter.values().length);
+    private final LongAdder[] phaseNanos = newAdders(Phase.values().length);
+    private final LongAdder[] phaseCounts = newAdders(Phase.values().length);
+    private final CopyOnWriteArrayList<Listener> listeners = new CopyOnWriteArrayList<>();
+    private volatile boolean enabled = true;
+
+    /**
+     * 计数器
+     */
+    public enum Counter {
+        FULL_COVER_CHECKS,   // isFullCover 调用次数
+        CELLS_SCANNED,       // 整盘扫描累计经过的格子数
+        REDUNDANCY_CHECKS,   // 冗余判定次数
+        KNIGHTS_REMOVED,     // 极小化移除的马数
+        MINIMIZE_PASSES,     // 极小化扫描遍数
+        CACHE_HITS,
+        CACHE_MISSES,
+        EXACT_NODES,         // 精确求解的搜索结点数
+        LOCAL_SEARCH_IMPROVEMENTS  // 局部搜索找到更优覆盖的次数
+    }
+
+    /**
+     * 计时阶段
+     */
+    public enum Phase {
+        SOLVE,               // 一次完整求解（含缓存）
+        FILL,                // 全放马
+        MINIMIZE,            // 串行极小化
+        PARALLEL_MINIMIZE,   // 并行极小化
+        TILING,              // 周期铺砌构造
+        EXACT_SEARCH,        // 分支定界
+        REMOVAL_SWEEP,       // 回溯移除
+        LOCAL_SEARCH,        // 局部搜索改进
+        WARM_RESIZE          // 保留原方案的增量调整大小
+    }
+
+    /**
+     * 统计监听器（在求解线程上回调，应尽快返回）
+     */
+    public interface Listener {
+        default void onPhaseFinished(Phase phase, long nanos) {
+        }
+
+        /**
+         * 阶段内进度，fraction 在 [0, 1]；极小化每遍从 0 重新开始
+         */
+        default void onProgress(Phase phase, double fraction) {
+        }
+    }
+
+    private static LongAdder[] newAdders(int n) {
+        LongAdder[] adders = new LongAdder[n];
+        for (int k = 0; k < n; k++) {
+            adders[k] = new LongAdder();
+        }
+        return adders;
+    }
+
+    /**
+     * 全局共享的统计对象，首次取用时注册到平台 MBeanServer
+     */
+    public static synchronized SolverMetrics shared() {
+        if (shared == null) {
+            shared = new SolverMetrics();
+            try {
+                MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+                ObjectName name = new ObjectName(OBJECT_NAME);
+                if (!server.isRegistered(name)) {
+                    server.registerMBean(shared, name);
+                }
+            } catch (JMException | SecurityException e) {
+                // 无法注册时仍可在进程内使用
+            }
+        }
+        return shared;
+    }
+
+    @Override
+    public boolean isEnabled() { return enabled; }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    public boolean hasListeners() {
+        return !listeners.isEmpty();
+    }
+
+    public void add(Counter counter, long delta) {
+        counters[counter.ordinal()].add(delta);
+    }
+
+    public void increment(Counter counter) {
+        counters[counter.ordinal()].increment();
+    }
+
+    public long get(Counter counter) {
+        return counters[counter.ordinal()].sum();
+    }
+
+    /**
+     * 阶段开始，返回起始时间戳，交给 end
+     */
+    public long begin() {
+        return System.nanoTime();
+    }
+
+    public void end(Phase phase, long startNanos) {
+        long nanos = System.nanoTime() - startNanos;
+        phaseNanos[phase.ordinal()].add(nanos);
+        phaseCounts[phase.ordinal()].increment();
+        for (Listener l : listeners) {
+            l.onPhaseFinished(phase, nanos);
+        }
+    }
+
+    public void progress(Phase phase, double fraction) {
+        for (Listener l : listeners) {
+            l.onProgress(phase, fraction);
+        }
+    }
+
+    public long getPhaseNanos(Phase phase) {
+        return phaseNanos[phase.ordinal()].sum();
+    }
+
+    public long getPhaseCount(Phase phase) {
+        return phaseCounts[phase.ordinal()].sum();
+    }
+
+    @Override
+    public Map<String, Long> getCounters() {
+        Map<String, Long> map = new LinkedHashMap<>();
+        for (Counter c : Counter.values()) {
+            map.put(c.name(), get(c));
+        }
+        return map;
+    }
+
+    @Override
+    public Map<String, Long> getPhaseMillis() {
+        Map<String, Long> map = new LinkedHashMap<>();
+        for (Phase p : Phase.values()) {
+            map.put(p.name(), getPhaseNanos(p) / 1_000_000);
+        }
+        return map;
+    }
+
+    @Override
+    public Map<String, Long> getPhaseCounts() {
+        Map<String, Long> map = new LinkedHashMap<>();
+        for (Phase p : Phase.values()) {
+            map.put(p.name(), getPhaseCount(p));
+        }
+        return map;
+    }
+
+    @Override
+    public void reset() {
+        for (LongAdder a : counters) a.reset();
+        for (LongAdder a : phaseNanos) a.reset();
+        for (LongAdder a : phaseCounts) a.reset();
+    }
+
+    /**
+     * 单行摘要，只列出非零项
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (Counter c : Counter.values()) {
+            long v = get(c);
+            if (v != 0) sb.append(c.name()).append('=').append(v).append(' ');
+        }
+        for (Phase p : Phase.values()) {
+            long n = getPhaseCount(p);
+            if (n != 0) {
+                sb.append(p.name()).append('=').append(getPhaseNanos(p) / 1_000_000).append("ms/")
+                        .append(n).append(' ');
+            }
+        }
+        return sb.toString().trim();
+    }
+}
@@ -0,0 +1,29 @@
+package chess;
+
+import java.util.Map;
+
+/**
+ * 求解统计的 JMX 接口（注册名 chess:type=SolverMetrics）
+ */
+public interface SolverMetricsMXBean {
+    boolean isEnabled();
+
+    void setEnabled(boolean enabled);
+
+    /**
+     * 计数器名 → 累计值
+     */
+    Map<String, Long> getCounters();
+
+    /**
+     * 阶段名 → 累计耗时（毫秒）
+     */
+    Map<String, Long> getPhaseMillis();
+
+    /**
+     * 阶段名 → 执行次数
+     */
+    Map<String, Long> getPhaseCounts();
+
+    void reset();
+}
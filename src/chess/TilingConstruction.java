@@ -0,0 +1,139 @@
+package chess;
+
+/**
+ * 周期铺砌构造：内部直接铺满平面上的周期性马阵，只在边界带内补马和去冗余
+ *
+ * 铺砌图案：(r + 7c) mod 16 ∈ {0, 1} 的格子放马，密度 1/8，在无限平面上是极小控制集。
+ * 列方向周期 16 整除 64，所以每行只需一个 long 模板重复写入。
+ * 缺口只可能出现在离边界 2 格以内，补马与极小化都限制在边界带内。
+ */
+public class TilingConstruction {
+    private static final int PERIOD = 16;
+    private static final int SLOPE = 7;
+    // 补马落在边界 4 格以内，冗余判定会波及再往里 2 格
+    private static final int REPAIR_DEPTH = 2;
+    private static final int PRUNE_DEPTH = 6;
+    // 马的8个走法方向
+    private static final int[][] DIRS = {{-2,-1},{-2,1},{-1,-2},{-1,2},
+            {1,-2},{1,2},{2,-1},{2,1}};
+
+    private TilingConstruction() {
+    }
+
+    /**
+     * 构造 rows×cols 的极小满覆盖
+     */
+    public static BitboardCover build(int rows, int cols) {
+        BitboardCover bb = new BitboardCover(rows, cols);
+        fill(bb);
+        return bb;
+    }
+
+    /**
+     * 在给定位棋盘上就地构造（原内容被覆盖），可直接写入内存映射存储
+     */
+    public static void fill(BitboardCover bb) {
+        int rows = bb.getRows(), cols = bb.getCols();
+        long[] templates = new long[PERIOD];
+        for (int r = 0; r < PERIOD; r++) {
+            long word = 0;
+            for (int c = 0; c < 64; c++) {
+                if (isPatternCell(r, c)) word |= 1L << c;
+            }
+            templates[r] = word;
+        }
+        int words = bb.getWordsPerRow();
+        for (int i = 0; i < rows; i++) {
+            long word = templates[i % PERIOD];
+            for (int w = 0; w < words; w++) {
+                bb.setWord(i, w, word);
+            }
+        }
+
+        // 1. 边界带内补马
+        forEachBorderCell(rows, cols, REPAIR_DEPTH, (i, j) -> {
+            if (!bb.get(i, j) && !bb.isAttacked(i, j)) {
+                repair(bb, i, j);
+            }
+        });
+        if (Thread.currentThread().isInterrupted()) {
+            // 补马后已满覆盖，被中断时省去去冗余与校验
+            return;
+        }
+        // 2. 边界带内按行优先去掉冗余马
+        forEachBorderCell(rows, cols, PRUNE_DEPTH, (i, j) -> {
+            if (bb.isRedundant(i, j)) {
+                bb.clear(i, j);
+            }
+        });
+        // 3. 整体校验（按字运算）
+        if (!bb.isFullCover()) {
+            throw new IllegalStateException("铺砌构造未能得到满覆盖：" + rows + "×" + cols);
+        }
+    }
+
+    static boolean isPatternCell(int r, int c) {
+        return Math.floorMod(r + SLOPE * c, PERIOD) <= 1;
+    }
+
+    /**
+     * 为未覆盖格 (i, j) 选一个能覆盖最多未覆盖格的位置放马（本格或其马步落点）
+     */
+    private static void repair(BitboardCover bb, int i, int j) {
+        int rows = bb.getRows(), cols = bb.getCols();
+        int bestX = i, bestY = j, bestGain = -1;
+        for (int k = -1; k < DIRS.length; k++) {
+            int x = k < 0 ? i : i + DIRS[k][0];
+            int y = k < 0 ? j : j + DIRS[k][1];
+            if (x < 0 || x >= rows || y < 0 || y >= cols) continue;
+            int gain = uncoveredAround(bb, x, y);
+            if (gain > bestGain) {
+                bestGain = gain;
+                bestX = x;
+                bestY = y;
+            }
+        }
+        bb.set(bestX, bestY);
+    }
+
+    /**
+     * 在 (x, y) 放马能新覆盖的格子数
+     */
+    private static int uncoveredAround(BitboardCover bb, int x, int y) {
+        int rows = bb.getRows(), cols = bb.getCols();
+        int gain = !bb.get(x, y) && !bb.isAttacked(x, y) ? 1 : 0;
+        for (int[] d : DIRS) {
+            int u = x + d[0], v = y + d[1];
+            if (u >= 0 && u < rows && v >= 0 && v < cols && !bb.get(u, v) && !bb.isAttacked(u, v)) {
+                gain++;
+            }
+        }
+        return gain;
+    }
+
+    private interface CellVisitor {
+        void visit(int i, int j);
+    }
+
+    /**
+     * 按行优先顺序访问离边界不超过 depth 格的格子（depth 行/列以内）
+     */
+    private static void forEachBorderCell(int rows, int cols, int depth, CellVisitor visitor) {
+        for (int i = 0; i < rows; i++) {
+            boolean edgeRow = i < depth || i >= rows - depth;
+            if (edgeRow) {
+                for (int j = 0; j < cols; j++) {
+                    visitor.visit(i, j);
+                }
+            } else {
+                int left = Math.min(depth, cols);
+                for (int j = 0; j < left; j++) {
+                    visitor.visit(i, j);
+                }
+                for (int j = Math.max(left, cols - depth); j < cols; j++) {
+                    visitor.visit(i, j);
+                }
+            }
+        }
+    }
+}
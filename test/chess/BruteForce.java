@@ -0,0 +1,141 @@
+package chess;
+
+/**
+ * 测试用的朴素参照实现：逐格按 Piece 的走法数覆盖次数，不借助走法表和位运算
+ */
+final class BruteForce {
+    private BruteForce() {
+    }
+
+    /**
+     * 各格被覆盖的次数（本格有马算一次）；active 为 null 时整个矩形都在盘上，洞上的马不计
+     */
+    static int[][] coverCounts(boolean[][] knights, boolean[][] active, Piece piece) {
+        int rows = knights.length, cols = knights[0].length;
+        int[][] count = new int[rows][cols];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                if (!knights[i][j] || !on(active, i, j)) continue;
+                count[i][j]++;
+                for (int k = 0; k < piece.getMoveCount(); k++) {
+                    int r = i + piece.dx(k), c = j + piece.dy(k);
+                    if (r >= 0 && r < rows && c >= 0 && c < cols && on(active, r, c)) count[r][c]++;
+                }
+            }
+        }
+        return count;
+    }
+
+    static boolean isFullCover(boolean[][] knights, boolean[][] active, Piece piece) {
+        return uncovered(knights, active, piece) == 0;
+    }
+
+    /**
+     * 盘上未被覆盖的格子数
+     */
+    static int uncovered(boolean[][] knights, boolean[][] active, Piece piece) {
+        int[][] count = coverCounts(knights, active, piece);
+        int n = 0;
+        for (int i = 0; i < count.length; i++) {
+            for (int j = 0; j < count[i].length; j++) {
+                if (on(active, i, j) && count[i][j] == 0) n++;
+            }
+        }
+        return n;
+    }
+
+    /**
+     * 冗余马：拿走后不会产生新的未覆盖格，即闭邻域内每格都至少被覆盖 2 次
+     */
+    static boolean[][] redundant(boolean[][] knights, boolean[][] active, Piece piece) {
+        int rows = knights.length, cols = knights[0].length;
+        int[][] count = coverCounts(knights, active, piece);
+        boolean[][] result = new boolean[rows][cols];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                if (!knights[i][j] || !on(active, i, j) || count[i][j] < 2) continue;
+                boolean removable = true;
+                for (int k = 0; k < piece.getMoveCount() && removable; k++) {
+                    int r = i + piece.dx(k), c = j + piece.dy(k);
+                    if (r >= 0 && r < rows && c >= 0 && c < cols && on(active, r, c) && count[r][c] < 2) {
+                        removable = false;
+                    }
+                }
+                result[i][j] = removable;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 满覆盖且去掉任何一匹马都不再满覆盖
+     */
+    static boolean isMinimal(boolean[][] knights, boolean[][] active, Piece piece) {
+        if (!isFullCover(knights, active, piece)) return false;
+        for (boolean[] row : redundant(knights, active, piece)) {
+            for (boolean r : row) {
+                if (r) return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 逐个子集枚举（格子数须很小）：result[0] 为最小马数，result[1] 为最小覆盖个数，result[2] 为极小覆盖个数
+     */
+    static long[] enumerate(int rows, int cols, Piece piece) {
+        int cells = rows * cols;
+        int minimum = Integer.MAX_VALUE;
+        long minimumCount = 0, minimalCount = 0;
+        for (int set = 0; set < 1 << cells; set++) {
+            boolean[][] knights = new boolean[rows][cols];
+            for (int v = 0; v < cells; v++) {
+                knights[v / cols][v % cols] = (set >>> v & 1) != 0;
+            }
+            if (!isFullCover(knights, null, piece)) continue;
+            int size = Integer.bitCount(set);
+            if (size < minimum) {
+                minimum = size;
+                minimumCount = 0;
+            }
+            if (size == minimum) minimumCount++;
+            if (isMinimal(knights, null, piece)) minimalCount++;
+        }
+        return new long[]{minimum, minimumCount, minimalCount};
+    }
+
+    static boolean[][] knights(ChessboardCover cover) {
+        int[][] board = cover.getBoard();
+        boolean[][] knights = new boolean[board.length][board[0].length];
+        for (int i = 0; i < board.length; i++) {
+            for (int j = 0; j < board[i].length; j++) {
+                knights[i][j] = board[i][j] == 1;
+            }
+        }
+        return knights;
+    }
+
+    static boolean[][] knights(BitboardCover bb) {
+        boolean[][] knights = new boolean[bb.getRows()][bb.getCols()];
+        for (int i = 0; i < bb.getRows(); i++) {
+            for (int j = 0; j < bb.getCols(); j++) {
+                knights[i][j] = bb.get(i, j);
+            }
+        }
+        return knights;
+    }
+
+    static boolean[][] active(BoardMask mask) {
+        boolean[][] active = new boolean[mask.getRows()][mask.getCols()];
+        for (int i = 0; i < mask.getRows(); i++) {
+            for (int j = 0; j < mask.getCols(); j++) {
+                active[i][j] = mask.isActive(i, j);
+            }
+        }
+        return active;
+    }
+
+    private static boolean on(boolean[][] active, int i, int j) {
+        return active == null || active[i][j];
+    }
+}
@@ -0,0 +1,217 @@
+package chess;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * 各引擎、策略、棋子下的求解结果与朴素实现对照：满覆盖且极小，精确求解等于真实最小值
+ */
+class ChessboardCoverTest {
+    private static final Piece[] PIECES = {Piece.KNIGHT, Piece.KING, Piece.CAMEL, Piece.ZEBRA, Piece.parse("0,1+1,2")};
+
+    @Test
+    void countingEngineGivesMinimalCovers() {
+        for (int rows = 1; rows <= 11; rows++) {
+            for (int cols = 1; cols <= 11; cols++) {
+                ChessboardCover cover = new ChessboardCover(rows, cols);
+                assertMinimal(cover, null, Piece.KNIGHT, rows + "x" + cols);
+            }
+        }
+    }
+
+    @Test
+    void bitboardEngineGivesMinimalCovers() {
+        for (int rows = 1; rows <= 11; rows++) {
+            for (int cols = 1; cols <= 11; cols++) {
+                ChessboardCover cover = new ChessboardCover(rows, cols, ChessboardCover.Engine.BITBOARD);
+                assertMinimal(cover, null, Piece.KNIGHT, rows + "x" + cols);
+            }
+        }
+        // 跨过 64 列的字边界
+        int[][] sizes = {{64, 65}, {70, 129}, {100, 37}};
+        for (int[] size : sizes) {
+            ChessboardCover cover = new ChessboardCover(size[0], size[1], ChessboardCover.Engine.BITBOARD);
+            assertMinimal(cover, null, Piece.KNIGHT, size[0] + "x" + size[1]);
+        }
+    }
+
+    @Test
+    void exactMatchesBruteForceMinimum() {
+        for (int rows = 1; rows <= 4; rows++) {
+            for (int cols = rows; cols * rows <= 16; cols++) {
+                long[] expected = BruteForce.enumerate(rows, cols, Piece.KNIGHT);
+                ChessboardCover cover = new ChessboardCover(rows, cols, ChessboardCover.Strategy.EXACT);
+                String where = rows + "x" + cols;
+                assertMinimal(cover, null, Piece.KNIGHT, where);
+                assertEquals(expected[0], cover.countHorses(), where);
+            }
+        }
+    }
+
+    @Test
+    void exactMatchesKnownKnightDomination() {
+        // n×n 棋盘上马的控制数（OEIS A006075）
+        int[] known = {1, 4, 4, 4, 5, 8, 10, 12};
+        for (int n = 1; n <= known.length; n++) {
+            ChessboardCover cover = new ChessboardCover(n, n, ChessboardCover.Strategy.EXACT);
+            assertEquals(known[n - 1], cover.countHorses(), n + "x" + n);
+        }
+    }
+
+    @Test
+    void exactStopsPromptlyWhenInterrupted() throws InterruptedException {
+        // 12×12 的完整搜索要好几秒，中断后应立即带着当前最优返回
+        ChessboardCover[] result = new ChessboardCover[1];
+        Thread worker = new Thread(() -> result[0] = new ChessboardCover(12, 12, ChessboardCover.Strategy.EXACT));
+        worker.start();
+        Thread.sleep(200);
+        worker.interrupt();
+        worker.join(2000);
+        assertFalse(worker.isAlive(), "中断后仍在搜索");
+        assertNotNull(result[0]);
+        assertTrue(BruteForce.isFullCover(BruteForce.knights(result[0]), null, Piece.KNIGHT));
+    }
+
+    @Test
+    void parallelMinimizationGivesMinimalCovers() {
+        for (ChessboardCover.Engine engine : new ChessboardCover.Engine[]{
+                ChessboardCover.Engine.COUNTING, ChessboardCover.Engine.BITBOARD}) {
+            assertAllSizes(ChessboardCover.Strategy.PARALLEL, engine, Piece.KNIGHT);
+            ChessboardCover large = new ChessboardCover(120, 90, engine, ChessboardCover.Strategy.PARALLEL);
+            assertMinimal(large, null, Piece.KNIGHT, engine + " 120x90");
+        }
+    }
+
+    @Test
+    void tilingGivesMinimalCovers() {
+        for (ChessboardCover.Engine engine : new ChessboardCover.Engine[]{
+                ChessboardCover.Engine.COUNTING, ChessboardCover.Engine.BITBOARD}) {
+            assertAllSizes(ChessboardCover.Strategy.TILING, engine, Piece.KNIGHT);
+        }
+        // 内部铺砌与边界带修补都要覆盖到，且跨过 64 列的字边界
+        int[][] sizes = {{64, 65}, {70, 129}, {100, 37}, {33, 200}};
+        for (int[] size : sizes) {
+            ChessboardCover cover = new ChessboardCover(size[0], size[1], ChessboardCover.Engine.BITBOARD,
+                    ChessboardCover.Strategy.TILING);
+            assertMinimal(cover, null, Piece.KNIGHT, "TILING " + size[0] + "x" + size[1]);
+        }
+    }
+
+    @Test
+    void otherPiecesGiveMinimalCovers() {
+        for (Piece piece : PIECES) {
+            for (ChessboardCover.Strategy strategy : new ChessboardCover.Strategy[]{
+                    ChessboardCover.Strategy.MINIMAL, ChessboardCover.Strategy.PARALLEL}) {
+                for (ChessboardCover.Engine engine : new ChessboardCover.Engine[]{
+                        ChessboardCover.Engine.COUNTING, ChessboardCover.Engine.BITBOARD}) {
+                    assertAllSizes(strategy, engine, piece);
+                }
+            }
+        }
+    }
+
+    @Test
+    void exactMatchesBruteForceMinimumForOtherPieces() {
+        for (Piece piece : PIECES) {
+            for (int rows = 1; rows <= 4; rows++) {
+                for (int cols = rows; cols * rows <= 16; cols++) {
+                    long[] expected = BruteForce.enumerate(rows, cols, piece);
+                    ChessboardCover cover = new ChessboardCover(rows, cols, ChessboardCover.Engine.COUNTING,
+                            ChessboardCover.Strategy.EXACT, null, piece);
+                    String where = piece + " " + rows + "x" + cols;
+                    assertMinimal(cover, null, piece, where);
+                    assertEquals(expected[0], cover.countHorses(), where);
+                }
+            }
+        }
+    }
+
+    @Test
+    void maskedBoardsGiveMinimalCovers() {
+        Random random = new Random(22);
+        ChessboardCover.Strategy[] strategies = {ChessboardCover.Strategy.MINIMAL, ChessboardCover.Strategy.PARALLEL};
+        for (int t = 0; t < 120; t++) {
+            BoardMask mask = randomMask(random, 3 + random.nextInt(28), 3 + random.nextInt(28));
+            if (mask.getActiveCount() == 0) continue;
+            Piece piece = PIECES[t % PIECES.length];
+            ChessboardCover.Strategy strategy = strategies[t % strategies.length];
+            ChessboardCover cover = new ChessboardCover(mask, strategy, piece);
+            assertMinimal(cover, BruteForce.active(mask), piece, "第 " + t + " 个形状 " + strategy);
+        }
+    }
+
+    @Test
+    void fullMaskMatchesRectangle() {
+        for (Piece piece : PIECES) {
+            ChessboardCover rect = new ChessboardCover(13, 17, piece);
+            ChessboardCover masked = new ChessboardCover(BoardMask.full(13, 17), ChessboardCover.Strategy.MINIMAL, piece);
+            assertEquals(rect.countHorses(), masked.countHorses(), piece.toString());
+        }
+    }
+
+    @Test
+    void warmResizeStaysMinimal() {
+        Random random = new Random(24);
+        for (ChessboardCover.Engine engine : new ChessboardCover.Engine[]{
+                ChessboardCover.Engine.COUNTING, ChessboardCover.Engine.BITBOARD}) {
+            for (Piece piece : PIECES) {
+                ChessboardCover cover = new ChessboardCover(20, 20, engine, ChessboardCover.Strategy.MINIMAL, null, piece);
+                for (int step = 0; step < 40; step++) {
+                    int rows = Math.max(1, cover.getRows() + random.nextInt(9) - 4);
+                    int cols = Math.max(1, cover.getCols() + random.nextInt(9) - 4);
+                    cover.resize(rows, cols);
+                    assertEquals(rows, cover.getRows());
+                    assertEquals(cols, cover.getCols());
+                    assertMinimal(cover, null, piece, engine + " " + piece + " 第 " + step + " 步 " + rows + "x" + cols);
+                }
+            }
+        }
+    }
+
+    @Test
+    void resizeRefusesMaskedBoards() {
+        BoardMask mask = BoardMask.full(10, 10).without(2, 2, 5, 5);
+        ChessboardCover cover = new ChessboardCover(mask);
+        assertThrows(IllegalStateException.class, () -> cover.resize(12, 12));
+        assertNotNull(cover.getMask());
+        assertTrue(cover.isFullCover());
+    }
+
+    /**
+     * 在 rows×cols 上随机挖 4 个矩形洞
+     */
+    static BoardMask randomMask(Random random, int rows, int cols) {
+        BoardMask mask = BoardMask.full(rows, cols);
+        for (int h = 0; h < 4; h++) {
+            int r = random.nextInt(rows), c = random.nextInt(cols);
+            mask = mask.without(r, c, Math.min(rows, r + 1 + random.nextInt(5)), Math.min(cols, c + 1 + random.nextInt(5)));
+        }
+        return mask;
+    }
+
+    /**
+     * 1×1 到 11×11 的每种大小
+     */
+    private static void assertAllSizes(ChessboardCover.Strategy strategy, ChessboardCover.Engine engine, Piece piece) {
+        for (int rows = 1; rows <= 11; rows++) {
+            for (int cols = 1; cols <= 11; cols++) {
+                ChessboardCover cover = new ChessboardCover(rows, cols, engine, strategy, null, piece);
+                assertMinimal(cover, null, piece, piece + " " + strategy + " " + engine + " " + rows + "x" + cols);
+            }
+        }
+    }
+
+    private static void assertMinimal(ChessboardCover cover, boolean[][] active, Piece piece, String where) {
+        boolean[][] knights = BruteForce.knights(cover);
+        assertTrue(BruteForce.isFullCover(knights, active, piece), "未满覆盖：" + where);
+        assertTrue(BruteForce.isMinimal(knights, active, piece), "有冗余马：" + where);
+        assertTrue(cover.isFullCover(), "isFullCover 与朴素实现不一致：" + where);
+    }
+}
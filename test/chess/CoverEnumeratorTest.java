@@ -0,0 +1,78 @@
+package chess;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * 枚举计数与逐个子集的穷举对照；开关对称约简时总数相同，代表解的轨道大小之和等于总数
+ */
+class CoverEnumeratorTest {
+    private static final Piece[] PIECES = {Piece.KNIGHT, Piece.KING, Piece.ZEBRA};
+    private static final int[][] SIZES = {{1, 1}, {2, 2}, {2, 3}, {3, 3}, {2, 5}, {3, 4}, {3, 5}, {4, 4}};
+
+    @Test
+    void countsMatchBruteForce() throws IOException {
+        for (Piece piece : PIECES) {
+            for (int[] size : SIZES) {
+                long[] expected = BruteForce.enumerate(size[0], size[1], piece);
+                String where = piece + " " + size[0] + "x" + size[1];
+
+                CoverEnumerator.Result minimum = run(size, piece, CoverEnumerator.Mode.MINIMUM, true);
+                assertEquals(expected[0], minimum.getMinimum(), "最小马数：" + where);
+                assertEquals(expected[1], minimum.getTotal(), "最小覆盖个数：" + where);
+                assertEquals(expected[1], run(size, piece, CoverEnumerator.Mode.MINIMUM, false).getTotal(),
+                        "不用对称的最小覆盖个数：" + where);
+
+                CoverEnumerator.Result minimal = run(size, piece, CoverEnumerator.Mode.MINIMAL, true);
+                assertEquals(expected[2], minimal.getTotal(), "极小覆盖个数：" + where);
+                assertEquals(expected[2], run(size, piece, CoverEnumerator.Mode.MINIMAL, false).getTotal(),
+                        "不用对称的极小覆盖个数：" + where);
+            }
+        }
+    }
+
+    @Test
+    void representativesAreDistinctMinimalCovers() throws IOException {
+        for (int[] size : SIZES) {
+            CoverEnumerator enumerator = new CoverEnumerator(size[0], size[1], CoverEnumerator.Mode.MINIMAL);
+            Set<String> seen = new HashSet<>();
+            long[] orbitSum = {0};
+            CoverEnumerator.Result result = enumerator.enumerate((cover, orbit) -> {
+                boolean[][] knights = BruteForce.knights(cover);
+                assertTrue(BruteForce.isMinimal(knights, null, Piece.KNIGHT), "不是极小覆盖");
+                assertTrue(seen.add(key(knights)), "代表解重复");
+                orbitSum[0] += orbit;
+            });
+            String where = size[0] + "x" + size[1];
+            assertTrue(result.isComplete(), where);
+            assertEquals(result.getCanonical(), seen.size(), where);
+            assertEquals(result.getTotal(), orbitSum[0], where);
+        }
+    }
+
+    private static CoverEnumerator.Result run(int[] size, Piece piece, CoverEnumerator.Mode mode, boolean symmetry)
+            throws IOException {
+        CoverEnumerator enumerator = new CoverEnumerator(size[0], size[1], mode, piece);
+        enumerator.setSymmetry(symmetry);
+        CoverEnumerator.Result result = enumerator.enumerate(null);
+        assertTrue(result.isComplete());
+        return result;
+    }
+
+    private static String key(boolean[][] knights) {
+        StringBuilder sb = new StringBuilder();
+        for (boolean[] row : knights) {
+            for (boolean k : row) {
+                sb.append(k ? '1' : '0');
+            }
+            sb.append('/');
+        }
+        return sb.toString();
+    }
+}
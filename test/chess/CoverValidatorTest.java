@@ -0,0 +1,101 @@
+package chess;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * 位平面校验器与朴素逐格计数对照，包括跨 64 列字边界的棋盘和不规则棋盘
+ */
+class CoverValidatorTest {
+    private static final Piece[] PIECES = {Piece.KNIGHT, Piece.KING, Piece.CAMEL, Piece.ZEBRA, Piece.parse("1,4")};
+
+    @Test
+    void randomBoardsMatchBruteForce() {
+        Random random = new Random(21);
+        for (int t = 0; t < 200; t++) {
+            int rows = 1 + random.nextInt(40), cols = 1 + random.nextInt(140);
+            Piece piece = PIECES[t % PIECES.length];
+            BitboardCover bb = randomBoard(random, rows, cols, piece, null);
+            check(bb, null, "第 " + t + " 个 " + piece + " " + rows + "x" + cols);
+        }
+    }
+
+    @Test
+    void maskedBoardsMatchBruteForce() {
+        Random random = new Random(2122);
+        for (int t = 0; t < 120; t++) {
+            BoardMask mask = ChessboardCoverTest.randomMask(random, 2 + random.nextInt(30), 2 + random.nextInt(90));
+            Piece piece = PIECES[t % PIECES.length];
+            BitboardCover bb = randomBoard(random, mask.getRows(), mask.getCols(), piece, mask);
+            check(bb, mask, "第 " + t + " 个形状 " + piece);
+        }
+    }
+
+    @Test
+    void solvedBoardsAreValid() {
+        for (Piece piece : PIECES) {
+            ChessboardCover cover = new ChessboardCover(90, 130, ChessboardCover.Engine.BITBOARD,
+                    ChessboardCover.Strategy.MINIMAL, null, piece);
+            CoverValidator.Report report = CoverValidator.validate(cover.toBitboard());
+            assertEquals(true, report.isMinimal(), piece.toString());
+            assertEquals(cover.countHorses(), report.getKnights(), piece.toString());
+        }
+    }
+
+    @Test
+    void matrixRoundTrip() throws IOException {
+        ChessboardCover cover = new ChessboardCover(11, 70);
+        StringWriter out = new StringWriter();
+        new SolutionExporter(11, 70, cover.getBoard()).writeMatrix(out);
+        BitboardCover read = CoverValidator.readMatrix(new StringReader(out.toString()), Piece.KNIGHT);
+        assertEquals(11, read.getRows());
+        assertEquals(70, read.getCols());
+        for (int i = 0; i < 11; i++) {
+            for (int j = 0; j < 70; j++) {
+                assertEquals(cover.hasHorse(i, j), read.get(i, j), i + "," + j);
+            }
+        }
+    }
+
+    /**
+     * 随机密度撒马；有形状时只撒在盘上
+     */
+    private static BitboardCover randomBoard(Random random, int rows, int cols, Piece piece, BoardMask mask) {
+        double density = 0.05 + random.nextDouble() * 0.4;
+        BitboardCover bb = new BitboardCover(rows, cols, piece);
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                if ((mask == null || mask.isActive(i, j)) && random.nextDouble() < density) bb.set(i, j);
+            }
+        }
+        return bb;
+    }
+
+    private static void check(BitboardCover bb, BoardMask mask, String where) {
+        boolean[][] knights = BruteForce.knights(bb);
+        boolean[][] active = mask != null ? BruteForce.active(mask) : null;
+        int[][] count = BruteForce.coverCounts(knights, active, bb.getPiece());
+        boolean[][] redundant = BruteForce.redundant(knights, active, bb.getPiece());
+        CoverValidator.Report report = mask != null ? CoverValidator.validate(bb, mask) : CoverValidator.validate(bb);
+        long uncovered = 0, removable = 0;
+        for (int i = 0; i < bb.getRows(); i++) {
+            for (int j = 0; j < bb.getCols(); j++) {
+                boolean on = active == null || active[i][j];
+                boolean hole = on && count[i][j] == 0;
+                assertEquals(hole, report.getUncovered().get(i, j), "未覆盖格 " + i + "," + j + "：" + where);
+                assertEquals(redundant[i][j], report.getRedundant().get(i, j), "冗余马 " + i + "," + j + "：" + where);
+                if (hole) uncovered++;
+                if (redundant[i][j]) removable++;
+            }
+        }
+        assertEquals(uncovered, report.getUncoveredCount(), where);
+        assertEquals(removable, report.getRedundantCount(), where);
+        assertEquals(bb.countHorses(), report.getKnights(), where);
+    }
+}
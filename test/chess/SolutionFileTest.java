@@ -0,0 +1,98 @@
+package chess;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * .ksf 方案文件：读写往返、文件头字段、CRC 校验能发现损坏
+ */
+class SolutionFileTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void roundTrip() throws IOException {
+        roundTrip(Piece.KNIGHT, "knight.ksf");
+    }
+
+    @Test
+    void pieceRoundTrip() throws IOException {
+        // 文件头记录棋子，载回后按同一棋子校验
+        roundTrip(Piece.ZEBRA, "zebra.ksf");
+    }
+
+    private void roundTrip(Piece piece, String name) throws IOException {
+        ChessboardCover cover = new ChessboardCover(37, 130, ChessboardCover.Engine.BITBOARD,
+                ChessboardCover.Strategy.PARALLEL, null, piece);
+        Path file = dir.resolve(name);
+        cover.save(file);
+
+        SolutionFile.Header header = SolutionFile.verify(file);
+        assertEquals(37, header.getRows());
+        assertEquals(130, header.getCols());
+        assertEquals(cover.countHorses(), header.getKnights());
+        assertEquals(ChessboardCover.Strategy.PARALLEL, header.getStrategy());
+        assertEquals(piece, header.getPiece());
+
+        BitboardCover read = SolutionFile.read(file);
+        for (int i = 0; i < 37; i++) {
+            for (int j = 0; j < 130; j++) {
+                assertEquals(cover.hasHorse(i, j), read.get(i, j), i + "," + j);
+            }
+        }
+        ChessboardCover loaded = ChessboardCover.load(file);
+        assertEquals(cover.countHorses(), loaded.countHorses());
+        assertEquals(piece, loaded.getPiece());
+    }
+
+    @Test
+    void resizingLoadedMappingMovesToBitboard() throws IOException {
+        // 超过 LOAD_MAP_CELLS 的文件按映射载入
+        int side = (int) Math.sqrt((double) ChessboardCover.LOAD_MAP_CELLS) + 1;
+        Path file = dir.resolve("large.ksf");
+        new ChessboardCover(side, side, ChessboardCover.Engine.BITBOARD, ChessboardCover.Strategy.TILING).save(file);
+        try (ChessboardCover loaded = ChessboardCover.load(file)) {
+            assertEquals(ChessboardCover.Engine.MAPPED, loaded.getEngine());
+            loaded.resize(20, 20);
+            assertEquals(ChessboardCover.Engine.BITBOARD, loaded.getEngine());
+            assertEquals(20, loaded.getRows());
+            assertTrue(loaded.isFullCover());
+        }
+    }
+
+    @Test
+    void corruptedPayloadIsRejected() throws IOException {
+        Path file = dir.resolve("8x8.ksf");
+        new ChessboardCover(8, 8).save(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // 翻转棋盘部分第一个字节的最低位
+            ByteBuffer b = ByteBuffer.allocate(1);
+            channel.read(b, SolutionFile.HEADER_BYTES);
+            b.put(0, (byte) (b.get(0) ^ 1));
+            b.rewind();
+            channel.write(b, SolutionFile.HEADER_BYTES);
+        }
+        assertThrows(IOException.class, () -> SolutionFile.verify(file));
+        assertThrows(IOException.class, () -> SolutionFile.read(file));
+    }
+
+    @Test
+    void truncatedFileIsRejected() throws IOException {
+        Path file = dir.resolve("20x20.ksf");
+        new ChessboardCover(20, 20).save(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 8);
+        }
+        assertThrows(IOException.class, () -> SolutionFile.readHeader(file));
+    }
+}